@@ -19,12 +19,15 @@ package org.locationtech.spatial4j;
 
 // NOTE: we keep the header as it came from ASF; it did not originate in Spatial4j
 
+import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -53,14 +56,14 @@ public abstract class SpatialPredicate implements Serializable {
   // Geometry Operations
 
   /** Bounding box of the *indexed* shape, then {@link #Intersects}. */
-  public static final SpatialPredicate BBoxIntersects = new SpatialPredicate("BBoxIntersects") {
+  public static final SpatialPredicate BBoxIntersects = new SpatialPredicate("BBoxIntersects", false) {
     @Override
     public boolean evaluate(Shape indexedShape, Shape queryShape) {
       return indexedShape.getBoundingBox().relate(queryShape).intersects();
     }
   };
   /** Bounding box of the *indexed* shape, then {@link #IsWithin}. */
-  public static final SpatialPredicate BBoxWithin     = new SpatialPredicate("BBoxWithin") {
+  public static final SpatialPredicate BBoxWithin     = new SpatialPredicate("BBoxWithin", false) {
     {
       register("BBoxCoveredBy");//alias -- the better name
     }
@@ -71,7 +74,7 @@ public abstract class SpatialPredicate implements Serializable {
     }
   };
   /** Meets the "Covers" OGC definition (boundary-neutral). */
-  public static final SpatialPredicate Contains       = new SpatialPredicate("Contains") {
+  public static final SpatialPredicate Contains       = new SpatialPredicate("Contains", false) {
     {
       register("Covers");//alias -- the better name
     }
@@ -81,7 +84,7 @@ public abstract class SpatialPredicate implements Serializable {
     }
   };
   /** Meets the "Intersects" OGC definition. */
-  public static final SpatialPredicate Intersects     = new SpatialPredicate("Intersects") {
+  public static final SpatialPredicate Intersects     = new SpatialPredicate("Intersects", false) {
     @Override
     public boolean evaluate(Shape indexedShape, Shape queryShape) {
       return indexedShape.relate(queryShape).intersects();
@@ -98,7 +101,7 @@ public abstract class SpatialPredicate implements Serializable {
     }
   };
   /** Meets the "Disjoint" OGC definition. */
-  public static final SpatialPredicate IsDisjointTo   = new SpatialPredicate("Disjoint") {
+  public static final SpatialPredicate IsDisjointTo   = new SpatialPredicate("Disjoint", true) {
     {
       register("IsDisjointTo");//alias (deprecated)
     }
@@ -108,7 +111,7 @@ public abstract class SpatialPredicate implements Serializable {
     }
   };
   /** Meets the "CoveredBy" OGC definition (boundary-neutral). */
-  public static final SpatialPredicate IsWithin       = new SpatialPredicate("Within") {
+  public static final SpatialPredicate IsWithin       = new SpatialPredicate("Within", false) {
     {
       register("IsWithin");//alias (deprecated)
       register("CoveredBy");//alias -- the more appropriate name.
@@ -119,7 +122,7 @@ public abstract class SpatialPredicate implements Serializable {
     }
   };
   /** Almost meets the "Overlaps" OGC definition, but boundary-neutral (boundary==interior). */
-  public static final SpatialPredicate Overlaps       = new SpatialPredicate("Overlaps") {
+  public static final SpatialPredicate Overlaps       = new SpatialPredicate("Overlaps", false) {
     @Override
     public boolean evaluate(Shape indexedShape, Shape queryShape) {
       return indexedShape.relate(queryShape) == SpatialRelation.INTERSECTS;//not Contains or Within or Disjoint
@@ -127,9 +130,22 @@ public abstract class SpatialPredicate implements Serializable {
   };
 
   private final String name;
+  private final boolean bboxFiltered;// see prepare()
+  private final boolean bboxDisjointResult;
 
   protected SpatialPredicate(String name) {
+    this(name, false, false);
+  }
+
+  /** For the built-in predicates whose result is {@code bboxDisjointResult} if the bounding boxes are disjoint. */
+  private SpatialPredicate(String name, boolean bboxDisjointResult) {
+    this(name, true, bboxDisjointResult);
+  }
+
+  private SpatialPredicate(String name, boolean bboxFiltered, boolean bboxDisjointResult) {
     this.name = name;
+    this.bboxFiltered = bboxFiltered;
+    this.bboxDisjointResult = bboxDisjointResult;
     register(name);
     list.add( this );
   }
@@ -169,6 +185,91 @@ public abstract class SpatialPredicate implements Serializable {
    */
   public abstract boolean evaluate(Shape indexedShape, Shape queryShape);
 
+  /**
+   * Returns an {@link Evaluator} of this predicate for this query shape, for evaluating many indexed shapes.
+   * It does the query-side work once. The built-in predicates other than {@link #IsEqualTo} skip the indexed
+   * shapes whose bounding box is disjoint from that of the query without relating the shapes; others just call
+   * {@link #evaluate(Shape, Shape)}. The result is the same as {@link #evaluate(Shape, Shape)}.
+   */
+  public Evaluator prepare(Shape queryShape) {
+    if (bboxFiltered)
+      return new BBoxFilteredEvaluator(this, queryShape, bboxDisjointResult);
+    return new Evaluator(this, queryShape);
+  }
+
+  /**
+   * Evaluates a {@link SpatialPredicate} with a fixed query shape.  Returned by {@link #prepare(Shape)}.
+   * The evaluators of the built-in predicates are immutable &amp; threadsafe.
+   */
+  public static class Evaluator {
+    protected final SpatialPredicate predicate;
+    protected final Shape queryShape;
+
+    public Evaluator(SpatialPredicate predicate, Shape queryShape) {
+      this.predicate = predicate;
+      this.queryShape = queryShape;
+    }
+
+    public SpatialPredicate getPredicate() {
+      return predicate;
+    }
+
+    public Shape getQueryShape() {
+      return queryShape;
+    }
+
+    /** Like {@link SpatialPredicate#evaluate(Shape, Shape)} with the query shape. */
+    public boolean evaluate(Shape indexedShape) {
+      return predicate.evaluate(indexedShape, queryShape);
+    }
+
+    /** Sets the bit of {@code out} at the index of each indexed shape that matches; it doesn't clear any. */
+    public void evaluate(List<? extends Shape> indexedShapes, BitSet out) {
+      for (int i = 0; i < indexedShapes.size(); i++) {
+        if (evaluate(indexedShapes.get(i)))
+          out.set(i);
+      }
+    }
+  }
+
+  /**
+   * An Evaluator for predicates whose result is known when the bounding boxes of the shapes are disjoint.
+   * The bounding box of the query shape is kept as primitives, and points aren't asked for theirs.
+   */
+  private static class BBoxFilteredEvaluator extends Evaluator {
+    private final boolean disjointResult;
+    private final boolean geo;
+    private final double minX, maxX, minY, maxY;
+
+    BBoxFilteredEvaluator(SpatialPredicate predicate, Shape queryShape, boolean disjointResult) {
+      super(predicate, queryShape);
+      this.disjointResult = disjointResult;
+      this.geo = queryShape.getContext() != null && queryShape.getContext().isGeo();
+      final Rectangle bbox = queryShape.getBoundingBox();
+      this.minX = bbox.getMinX();
+      this.maxX = bbox.getMaxX();
+      this.minY = bbox.getMinY();
+      this.maxY = bbox.getMaxY();
+    }
+
+    @Override
+    public boolean evaluate(Shape indexedShape) {
+      final int bboxRelation;
+      if (indexedShape instanceof Point) {
+        final Point point = (Point) indexedShape;
+        bboxRelation = RectangleImpl.relate(geo, minX, maxX, minY, maxY, point.getX(), point.getY());
+      } else {
+        final Rectangle bbox = indexedShape.getBoundingBox();
+        bboxRelation = RectangleImpl.relate(geo, minX, maxX, minY, maxY,
+            bbox.getMinX(), bbox.getMaxX(), bbox.getMinY(), bbox.getMaxY());
+      }
+      // (empty shapes have NaN bounds, which aren't disjoint; they're evaluated)
+      if (bboxRelation == RectangleImpl.RELATE_DISJOINT)
+        return disjointResult;
+      return predicate.evaluate(indexedShape, queryShape);
+    }
+  }
+
   public String getName() {
     return name;
   }
@@ -10,6 +10,7 @@ package org.locationtech.spatial4j.context;
 
 import org.locationtech.spatial4j.distance.CartesianDistCalc;
 import org.locationtech.spatial4j.distance.DistanceCalculator;
+import org.locationtech.spatial4j.distance.GeodesicEllipsoidDistCalc;
 import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
 import org.locationtech.spatial4j.io.*;
 import org.locationtech.spatial4j.shape.Rectangle;
@@ -38,7 +39,7 @@ import java.util.*;
  * <DT>shapeFactoryClass</DT>
  * <DD>Java class of the {@link ShapeFactory}.</DD>
  * <DT>distCalculator</DT>
- * <DD>haversine | lawOfCosines | vincentySphere | cartesian | cartesian^2
+ * <DD>haversine | lawOfCosines | vincentySphere | wgs84 | cartesian | cartesian^2
  * -- see {@link DistanceCalculator}</DD>
  * <DT>worldBounds</DT>
  * <DD>{@code ENVELOPE(xMin, xMax, yMax, yMin)} -- see {@link SpatialContext#getWorldBounds()}</DD>
@@ -50,6 +51,9 @@ import java.util.*;
  * <DD>Comma separated list of {@link org.locationtech.spatial4j.io.ShapeWriter} class names</DD>
  * <DT>binaryCodecClass</DT>
  * <DD>Java class of the {@link org.locationtech.spatial4j.io.BinaryCodec}</DD>
+ * <DT>binaryCodecGridSize</DT>
+ * <DD>1e-7 (default) -- the grid that coordinates are rounded to by
+ * {@link org.locationtech.spatial4j.io.CompactBinaryCodec}</DD>
  * </DL>
  */
 public class SpatialContextFactory {
@@ -69,6 +73,7 @@ public class SpatialContextFactory {
 
   public Class<? extends ShapeFactory> shapeFactoryClass = ShapeFactoryImpl.class;
   public Class<? extends BinaryCodec> binaryCodecClass = BinaryCodec.class;
+  public double binaryCodecGridSize = 1e-7;
   public final List<Class<? extends ShapeReader>> readers = new ArrayList<>();
   public final List<Class<? extends ShapeWriter>> writers = new ArrayList<>();
   public boolean hasFormatConfig = false;
@@ -126,6 +131,7 @@ public class SpatialContextFactory {
     initField("normWrapLongitude");
 
     initField("binaryCodecClass");
+    initField("binaryCodecGridSize");
   }
 
   /** Gets {@code name} from args and populates a field by the same name with the value. */
@@ -144,6 +150,10 @@ public class SpatialContextFactory {
         Object o;
         if (field.getType() == Boolean.TYPE) {
           o = Boolean.valueOf(str);
+        } else if (field.getType() == Integer.TYPE) {
+          o = Integer.valueOf(str);
+        } else if (field.getType() == Double.TYPE) {
+          o = Double.valueOf(str);
         } else if (field.getType() == Class.class) {
           try {
             o = classLoader.loadClass(str);
@@ -175,6 +185,8 @@ public class SpatialContextFactory {
       distCalc = new GeodesicSphereDistCalc.LawOfCosines();
     } else if (calcStr.equalsIgnoreCase("vincentySphere")) {
       distCalc = new GeodesicSphereDistCalc.Vincenty();
+    } else if (calcStr.equalsIgnoreCase("wgs84")) {
+      distCalc = new GeodesicEllipsoidDistCalc();
     } else if (calcStr.equalsIgnoreCase("cartesian")) {
       distCalc = new CartesianDistCalc();
     } else if (calcStr.equalsIgnoreCase("cartesian^2")) {
@@ -37,6 +37,8 @@ import java.util.Map;
  *  -- see {@link ValidationRule}</DD>
  * <DT>autoIndex</DT>
  * <DD>true|false(default) -- see {@link JtsShapeFactory#isAutoIndex()}</DD>
+ * <DT>autoIndexThreshold</DT>
+ * <DD>0(default, disabled)|N -- see {@link JtsShapeFactory#getAutoIndexThreshold()}</DD>
  * <DT>allowMultiOverlap</DT>
  * <DD>true|false(default) -- see {@link JtsSpatialContext#isAllowMultiOverlap()}</DD>
  * <DT>precisionModel</DT>
@@ -62,6 +64,7 @@ public class JtsSpatialContextFactory extends SpatialContextFactory {
 
   public ValidationRule validationRule = ValidationRule.error;
   public boolean autoIndex = false;
+  public int autoIndexThreshold = 0;//disabled
   public boolean allowMultiOverlap = false;//ignored if geo=false
 
   //kinda advanced options:
@@ -97,6 +100,7 @@ public class JtsSpatialContextFactory extends SpatialContextFactory {
     initField("datelineRule");
     initField("validationRule");
     initField("autoIndex");
+    initField("autoIndexThreshold");
     initField("allowMultiOverlap");
     initField("useJtsPoint");
     initField("useJtsLineString");
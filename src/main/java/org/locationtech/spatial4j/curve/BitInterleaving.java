@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.curve;
+
+/**
+ * Interleaving the bits of two integers, as for the {@link MortonCurve} and geohashes (see
+ * {@link org.locationtech.spatial4j.io.GeohashUtils}).
+ */
+public final class BitInterleaving {
+
+  private BitInterleaving() {
+  }
+
+  /** Interleaves the low 32 bits of x and y; x's bits are at the odd positions, so x is the most significant. */
+  public static long interleave(long x, long y) {
+    return (spreadBits(x) << 1) | spreadBits(y);
+  }
+
+  /** Spreads the low 32 bits of v to the even bit positions. */
+  public static long spreadBits(long v) {
+    v &= 0x00000000FFFFFFFFL;
+    v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v << 2)) & 0x3333333333333333L;
+    v = (v | (v << 1)) & 0x5555555555555555L;
+    return v;
+  }
+
+  /** The inverse of {@link #spreadBits(long)}: gathers the even bit positions. */
+  public static long compactBits(long v) {
+    v &= 0x5555555555555555L;
+    v = (v | (v >>> 1)) & 0x3333333333333333L;
+    v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+    return v;
+  }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.curve;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+
+/**
+ * The <a href="https://en.wikipedia.org/wiki/Hilbert_curve">Hilbert curve</a>. Consecutive keys are
+ * always adjacent cells, so it has better locality than the {@link MortonCurve}: a shape's cells fall
+ * into fewer and longer ranges of keys. The curve starts at the world's lower-left corner and ends at
+ * the lower-right one.
+ */
+public class HilbertCurve extends SpaceFillingCurve {
+
+  public HilbertCurve(SpatialContext ctx, int order) {
+    super(ctx, order);
+  }
+
+  @Override
+  protected long index(long x, long y) {
+    final long n = 1L << order;
+    long key = 0;
+    for (long s = n >>> 1; s > 0; s >>>= 1) {
+      final long rx = (x & s) != 0 ? 1 : 0;
+      final long ry = (y & s) != 0 ? 1 : 0;
+      key += s * s * ((3 * rx) ^ ry);
+      // rotate the quadrant so that the curve within it has the canonical orientation
+      if (ry == 0) {
+        if (rx == 1) {
+          x = n - 1 - x;
+          y = n - 1 - y;
+        }
+        final long t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return key;
+  }
+
+  @Override
+  protected long deindex(long key) {
+    final long n = 1L << order;
+    long x = 0, y = 0;
+    long t = key;
+    for (long s = 1; s < n; s <<= 1) {
+      final long rx = 1 & (t >>> 1);
+      final long ry = 1 & (t ^ rx);
+      if (ry == 0) {
+        if (rx == 1) {
+          x = s - 1 - x;
+          y = s - 1 - y;
+        }
+        final long tmp = x;
+        x = y;
+        y = tmp;
+      }
+      x += s * rx;
+      y += s * ry;
+      t >>>= 2;
+    }
+    return (x << 32) | y;
+  }
+}
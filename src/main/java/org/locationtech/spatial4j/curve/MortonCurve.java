@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.curve;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+/**
+ * The Z-order (Morton) curve: the key interleaves the bits of the cell position, x first. It's the same
+ * order as geohashes (see {@link org.locationtech.spatial4j.io.GeohashUtils}) but over the context's
+ * world bounds and with an equal number of bits per axis.
+ */
+public class MortonCurve extends SpaceFillingCurve {
+
+  public MortonCurve(SpatialContext ctx, int order) {
+    super(ctx, order);
+  }
+
+  /**
+   * @param bounds The extent of the curve, instead of the context's world bounds.
+   */
+  public MortonCurve(SpatialContext ctx, Rectangle bounds, int order) {
+    super(ctx, bounds, order);
+  }
+
+  @Override
+  protected long index(long x, long y) {
+    return BitInterleaving.interleave(x, y);
+  }
+
+  @Override
+  protected long deindex(long key) {
+    return (BitInterleaving.compactBits(key >>> 1) << 32) | BitInterleaving.compactBits(key);
+  }
+}
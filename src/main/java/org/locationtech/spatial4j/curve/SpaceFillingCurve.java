@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.curve;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+import java.util.Arrays;
+
+/**
+ * A space-filling curve over {@link SpatialContext#getWorldBounds()} (or other bounds): it maps points to long keys such
+ * that points near each other tend to have keys near each other, and it maps shapes to ranges of keys.
+ * <p>
+ * The world is divided into a grid of 2<sup>order</sup> cells along each axis, and a point's key is the
+ * position of its cell along the curve. Keys thus have up to 2 * {@link #MAX_ORDER} bits. Like a quad tree,
+ * each aligned block of 2<sup>k</sup> by 2<sup>k</sup> cells is a contiguous range of keys, which is what
+ * makes {@link #ranges(Shape, int)} possible.
+ * <p>
+ * Immutable &amp; threadsafe.
+ */
+public abstract class SpaceFillingCurve {
+
+  /** The maximum bits per axis. */
+  public static final int MAX_ORDER = 31;
+
+  protected final SpatialContext ctx;
+  protected final Rectangle bounds;
+  protected final int order;
+  private final double minX, minY, cellWidth, cellHeight;
+  private final long maxCell;
+
+  /**
+   * @param order The number of bits per axis; 1 to {@link #MAX_ORDER}.
+   */
+  protected SpaceFillingCurve(SpatialContext ctx, int order) {
+    this(ctx, ctx.getWorldBounds(), order);
+  }
+
+  /**
+   * @param bounds The extent of the curve, instead of the context's world bounds.
+   * @param order The number of bits per axis; 1 to {@link #MAX_ORDER}.
+   */
+  protected SpaceFillingCurve(SpatialContext ctx, Rectangle bounds, int order) {
+    if (order < 1 || order > MAX_ORDER)
+      throw new IllegalArgumentException("order must be between 1 and " + MAX_ORDER + ": " + order);
+    this.ctx = ctx;
+    this.bounds = bounds;
+    this.order = order;
+    this.minX = bounds.getMinX();
+    this.minY = bounds.getMinY();
+    this.maxCell = (1L << order) - 1;
+    this.cellWidth = bounds.getWidth() / (maxCell + 1);
+    this.cellHeight = bounds.getHeight() / (maxCell + 1);
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  /** The extent of the curve; usually {@link SpatialContext#getWorldBounds()}. */
+  public Rectangle getBounds() {
+    return bounds;
+  }
+
+  /** The number of bits per axis. Keys have twice this many. */
+  public int getOrder() {
+    return order;
+  }
+
+  /** The key of the cell at curve position (x, y), each between 0 and 2<sup>order</sup> - 1. */
+  protected abstract long index(long x, long y);
+
+  /** The inverse of {@link #index(long, long)}: the cell position, packed as x in the high 32 bits. */
+  protected abstract long deindex(long key);
+
+  /** The key of the cell containing the point, given in world coordinates. */
+  public long encode(double x, double y) {
+    return index(cell(x, minX, cellWidth), cell(y, minY, cellHeight));
+  }
+
+  public long encode(Point point) {
+    return encode(point.getX(), point.getY());
+  }
+
+  private long cell(double v, double min, double cellLen) {
+    long c = (long) Math.floor((v - min) / cellLen);
+    return c < 0 ? 0 : c > maxCell ? maxCell : c;//world bounds are inclusive
+  }
+
+  /**
+   * The rectangle of the block of cells containing the key's cell that is 2<sup>level</sup> cells on a side.
+   * Level 0 is the key's own cell; level {@code order} is the whole world.
+   *
+   * @param reuse Optional; if not null it's reset and returned.
+   */
+  public Rectangle cellBounds(long key, int level, Rectangle reuse) {
+    if (level < 0 || level > order)
+      throw new IllegalArgumentException("level must be between 0 and " + order + ": " + level);
+    long xy = deindex(key);
+    long x = (xy >>> 32) >>> level << level;
+    long y = (xy & 0xFFFFFFFFL) >>> level << level;
+    double blockMinX = minX + x * cellWidth;
+    double blockMinY = minY + y * cellHeight;
+    double blockMaxX = blockMinX + (cellWidth * (1L << level));
+    double blockMaxY = blockMinY + (cellHeight * (1L << level));
+    if (reuse == null)
+      return ctx.makeRectangle(blockMinX, blockMaxX, blockMinY, blockMaxY);
+    reuse.reset(blockMinX, blockMaxX, blockMinY, blockMaxY);
+    return reuse;
+  }
+
+  /**
+   * Finds the ranges of keys whose cells cover the shape. Blocks of cells are refined from the whole world,
+   * one quad tree level at a time, using {@link Shape#relate(Shape)} on each block's rectangle: disjoint
+   * blocks are dropped and blocks within the shape aren't refined further. If refining the next level would
+   * describe the covering with more than {@code maxRanges} blocks, refinement stops early; the covering is
+   * then coarser but still complete. Adjacent ranges are merged.
+   *
+   * @param maxRanges the budget of blocks; at least 1
+   * @return pairs of the first and last (inclusive) key of each range, in ascending order.
+   */
+  public long[] ranges(Shape shape, int maxRanges) {
+    if (maxRanges < 1)
+      throw new IllegalArgumentException("maxRanges must be >= 1: " + maxRanges);
+    final SpatialRelation worldRel = shape.relate(bounds);
+    if (worldRel == SpatialRelation.DISJOINT)
+      return new long[0];
+    // Each block is a range of keys, and whether it's only partially within the shape. Children replace
+    //  their parent in place, in key order, so the blocks stay in ascending order.
+    long[] starts = {0};
+    long[] ends = {(1L << (2 * order)) - 1};
+    boolean[] partial = {worldRel != SpatialRelation.CONTAINS};
+    int numBlocks = 1;
+    final Rectangle blockRect = ctx.makeRectangle(minX, minX, minY, minY);
+    final long[] childStarts = new long[4];
+    final SpatialRelation[] childRels = new SpatialRelation[4];
+    for (int level = order - 1; level >= 0; level--) {// the children's level
+      final int capacity = (int) Math.min(numBlocks * 4L, maxRanges);
+      final long[] newStarts = new long[capacity];
+      final long[] newEnds = new long[capacity];
+      final boolean[] newPartial = new boolean[capacity];
+      int newNumBlocks = 0;
+      boolean anyPartial = false;
+      boolean overBudget = false;
+      for (int i = 0; i < numBlocks && !overBudget; i++) {
+        if (!partial[i]) {
+          if (newNumBlocks == capacity) {
+            overBudget = true;
+            break;
+          }
+          newStarts[newNumBlocks] = starts[i];
+          newEnds[newNumBlocks++] = ends[i];
+          continue;
+        }
+        final long childSize = 1L << (2 * level);
+        for (int child = 0; child < 4; child++) {// in key order
+          childStarts[child] = starts[i] + child * childSize;
+          childRels[child] = shape.relate(cellBounds(childStarts[child], level, blockRect));
+        }
+        for (int child = 0; child < 4; child++) {
+          if (childRels[child] == SpatialRelation.DISJOINT)
+            continue;
+          if (newNumBlocks == capacity) {
+            overBudget = true;
+            break;
+          }
+          newStarts[newNumBlocks] = childStarts[child];
+          newEnds[newNumBlocks] = childStarts[child] + childSize - 1;
+          newPartial[newNumBlocks++] = childRels[child] != SpatialRelation.CONTAINS;
+          anyPartial |= childRels[child] != SpatialRelation.CONTAINS;
+        }
+      }
+      if (overBudget)
+        break;// keep the previous level
+      starts = newStarts;
+      ends = newEnds;
+      partial = newPartial;
+      numBlocks = newNumBlocks;
+      if (!anyPartial)
+        break;
+    }
+
+    // Convert to pairs, merging adjacent blocks
+    final long[] ranges = new long[numBlocks * 2];
+    int numRanges = 0;
+    for (int i = 0; i < numBlocks; i++) {
+      if (numRanges > 0 && ranges[numRanges * 2 - 1] + 1 == starts[i]) {
+        ranges[numRanges * 2 - 1] = ends[i];
+      } else {
+        ranges[numRanges * 2] = starts[i];
+        ranges[numRanges * 2 + 1] = ends[i];
+        numRanges++;
+      }
+    }
+    return numRanges * 2 == ranges.length ? ranges : Arrays.copyOf(ranges, numRanges * 2);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(order=" + order + ")";
+  }
+}
@@ -0,0 +1,10 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+/** Space-filling curves: mapping points to sortable keys, and shapes to ranges of keys. */
+package org.locationtech.spatial4j.curve;
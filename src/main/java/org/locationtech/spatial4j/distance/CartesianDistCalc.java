@@ -47,6 +47,22 @@ public class CartesianDistCalc extends AbstractDistanceCalculator {
     return Math.sqrt(xSquaredPlusYSquared);
   }
 
+  @Override
+  public void distances(Point from, double[] xs, double[] ys, int off, int len, double[] out) {
+    final double fromX = from.getX();
+    final double fromY = from.getY();
+    final int end = off + len;
+    if (squared) {
+      for (int i = off; i < end; i++) {
+        out[i] = distanceSquared(fromX, fromY, xs[i], ys[i]);
+      }
+    } else {
+      for (int i = off; i < end; i++) {
+        out[i] = Math.sqrt(distanceSquared(fromX, fromY, xs[i], ys[i]));
+      }
+    }
+  }
+
   private static double distanceSquared(double fromX, double fromY, double toX, double toY) {
     double deltaX = fromX - toX;
     double deltaY = fromY - toY;
@@ -26,6 +26,20 @@ public interface DistanceCalculator {
   /** The distance between <code>from</code> and <code>Point(toX,toY)</code>. */
   public double distance(Point from, double toX, double toY);
 
+  /**
+   * Bulk version of {@link #distance(Point, double, double)}: for each index <code>i</code> from
+   * <code>off</code> (inclusive) to <code>off + len</code> (exclusive), <code>out[i]</code> is
+   * set to the distance between <code>from</code> and <code>Point(xs[i],ys[i])</code>. The results
+   * are the same as calling the single-point method; implementations merely hoist the work that
+   * only depends on <code>from</code> out of the loop.  <code>out</code> may be the same array as
+   * <code>xs</code> or <code>ys</code>.  The default implementation simply loops.
+   */
+  public default void distances(Point from, double[] xs, double[] ys, int off, int len, double[] out) {
+    for (int i = off, end = off + len; i < end; i++) {
+      out[i] = distance(from, xs[i], ys[i]);
+    }
+  }
+
   /** Returns true if the distance between from and to is &lt;= distance. */
   public boolean within(Point from, double toX, double toY, double distance);
 
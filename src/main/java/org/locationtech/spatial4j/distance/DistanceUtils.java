@@ -23,6 +23,8 @@ import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 
+import java.util.Arrays;
+
 
 /**
  * Various distance calculations and constants. To the extent possible, a {@link
@@ -412,6 +414,97 @@ public class DistanceUtils {
     return 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
   }
 
+  /**
+   * A bulk and approximate form of {@link #distHaversineRAD(double, double, double, double)}: for
+   * each index <code>i</code> from <code>off</code> (inclusive) to <code>off + len</code>
+   * (exclusive), <code>out[i]</code> is set to the distance between (lat1,lon1) and
+   * (lat2s[i],lon2s[i]).  All arguments and results are in radians.
+   * <p>
+   * The sines and cosines are computed with polynomials instead of {@link Math#sin(double)} and
+   * {@link Math#cos(double)} so that the main loop is plain arithmetic, which the JIT can
+   * auto-vectorize (SIMD) on hardware that supports it.  The polynomial has a relative error under
+   * 5e-14 for the whole input range.  Compared to the scalar method, the resulting distance has a
+   * relative error under 1e-11 for distances up to PI - 0.01 radians (~64km short of the antipode
+   * on the earth).  Closer to the antipode the haversine formula itself is poorly conditioned and
+   * the absolute error is under 1e-6 radians (~6m).  Use the scalar method when exact agreement
+   * with it matters.  Most of the remaining time is spent converting to an angle; when the goal is
+   * to filter by distance, prefer
+   * {@link #withinHaversineRAD(double, double, double, double[], double[], int, int, boolean[])}.
+   *
+   * @param lat1 The y coordinate of the origin, in radians
+   * @param lon1 The x coordinate of the origin, in radians
+   * @param lat2s The y coordinates, in radians, in [-PI/2, PI/2]
+   * @param lon2s The x coordinates, in radians, in [-PI, PI]
+   * @param out Receives the distances, in radians. It may be the same array as lat2s or lon2s.
+   */
+  public static void distHaversineRAD(double lat1, double lon1, double[] lat2s, double[] lon2s,
+                                      int off, int len, double[] out) {
+    final int end = off + len;
+    final double cosLat1 = Math.cos(lat1);
+    // First pass computes "h" (the haversine of the angle). It's straight-line arithmetic; keep it so.
+    for (int i = off; i < end; i++) {
+      double hsinX = sinHalfAbsRAD(lon1 - lon2s[i]);
+      double hsinY = sinHalfAbsRAD(lat1 - lat2s[i]);
+      // cos(lat) == sin(PI/2 - |lat|), and the argument is in [0, PI/2]
+      double cosLat2 = sinPolyRAD(DEG_90_AS_RADS - Math.abs(lat2s[i]));
+      out[i] = hsinY * hsinY + (cosLat1 * cosLat2 * hsinX * hsinX);
+    }
+    // Second pass converts h to the angle.
+    for (int i = off; i < end; i++) {
+      double h = out[i];
+      if (h > 1)//numeric robustness issue. If we didn't check, the answer would be NaN!
+        h = 1;
+      out[i] = 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+  }
+
+  /**
+   * A bulk radius filter: for each index <code>i</code> from <code>off</code> (inclusive) to
+   * <code>off + len</code> (exclusive), <code>out[i]</code> is set to whether (lat2s[i],lon2s[i]) is
+   * within <code>distRAD</code> of (lat1,lon1).  All arguments are in radians. This compares the
+   * haversine of the angle to that of <code>distRAD</code>, so there is no inverse trigonometry at
+   * all, and it computes the same approximation as
+   * {@link #distHaversineRAD(double, double, double[], double[], int, int, double[])}.  Points
+   * whose distance is within a relative 1e-11 of <code>distRAD</code> may be classified either way.
+   */
+  public static void withinHaversineRAD(double lat1, double lon1, double distRAD, double[] lat2s, double[] lon2s,
+                                        int off, int len, boolean[] out) {
+    final int end = off + len;
+    if (distRAD >= DEG_180_AS_RADS) {//covers the globe
+      Arrays.fill(out, off, end, true);
+      return;
+    }
+    final double cosLat1 = Math.cos(lat1);
+    final double hsinDist = Math.sin(distRAD * 0.5);
+    final double hDist = hsinDist * hsinDist;
+    for (int i = off; i < end; i++) {
+      double hsinX = sinHalfAbsRAD(lon1 - lon2s[i]);
+      double hsinY = sinHalfAbsRAD(lat1 - lat2s[i]);
+      double cosLat2 = sinPolyRAD(DEG_90_AS_RADS - Math.abs(lat2s[i]));
+      out[i] = hsinY * hsinY + (cosLat1 * cosLat2 * hsinX * hsinX) <= hDist;
+    }
+  }
+
+  /**
+   * |sin(a/2)| for a in [-2*PI, 2*PI] via {@link #sinPolyRAD(double)}, reducing the argument to
+   * [0, PI/2] by symmetry.
+   */
+  private static double sinHalfAbsRAD(double a) {
+    double x = Math.abs(a) * 0.5;// [0, PI]
+    return sinPolyRAD(Math.min(x, DEG_180_AS_RADS - x));// sin(x) == sin(PI - x)
+  }
+
+  /**
+   * sin(x) for x in [-PI/2, PI/2] as its Taylor polynomial to the x^17 term, evaluated with Horner's
+   * rule. The truncation error is bounded by |x|^19/19!, i.e. a relative error under 5e-14.
+   */
+  private static double sinPolyRAD(double x) {
+    final double x2 = x * x;
+    return x * (1 + x2 * (-1.0 / 6 + x2 * (1.0 / 120 + x2 * (-1.0 / 5040 + x2 * (1.0 / 362880
+        + x2 * (-1.0 / 39916800 + x2 * (1.0 / 6227020800L + x2 * (-1.0 / 1307674368000L
+        + x2 * (1.0 / 355687428096000L)))))))));
+  }
+
   /**
    * Calculates the distance between two lat-lon's using the Law of Cosines. Due to numeric conditioning
    * errors, it is not as accurate as the Haversine formula for small distances.  But with
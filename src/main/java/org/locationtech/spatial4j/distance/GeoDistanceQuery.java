@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.distance;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import static org.locationtech.spatial4j.distance.DistanceUtils.toRadians;
+
+/**
+ * A point-distance ("within this distance of a center") test on the sphere, prepared once so that it's
+ * cheap to evaluate against many points.  It's the same test as
+ * {@link DistanceCalculator#within(Point, double, double, double)} of a spherical calculator (e.g.
+ * {@link GeodesicSphereDistCalc.Haversine}) but:
+ * <ul>
+ *   <li>The bounding box of the circle is tested first, which rejects most points (the usual
+ *   answer) with a few comparisons and no trigonometry.</li>
+ *   <li>Otherwise, instead of computing the distance, it compares the squared length of the chord between
+ *   the two points on the unit sphere to that of the distance.  This needs no inverse trigonometry
+ *   (asin/atan2), and the trigonometry of the center is pre-computed.</li>
+ * </ul>
+ * Results may differ from the distance calculators due to rounding when the point is barely on the
+ * edge of the circle.
+ * <p>
+ * Immutable &amp; threadsafe.
+ */
+public class GeoDistanceQuery {
+
+  private final Point center;
+  private final double distDEG;
+  private final Rectangle bbox;
+
+  // bbox fields, unwrapped such that minX <= maxX (maxX might exceed 180)
+  private final double minX, maxX, minY, maxY;
+  private final boolean bboxWorldWrap;
+
+  private final double lat1RAD;
+  private final double lon1RAD;
+  private final double cosLat1;
+  /** The squared chord length on the unit sphere of distDEG, divided by 4 (i.e. the haversine of it). */
+  private final double maxChordSqrdDiv4;
+
+  /**
+   * @param center The center of the circle.
+   * @param distDEG The distance from the center, in degrees (as with the {@link DistanceCalculator}).
+   * @param ctx A geo context.
+   */
+  public GeoDistanceQuery(Point center, double distDEG, SpatialContext ctx) {
+    if (!ctx.isGeo())
+      throw new IllegalArgumentException("Requires a geo context: " + ctx);
+    this.center = center;
+    this.distDEG = distDEG;
+    this.bbox = DistanceUtils.calcBoxByDistFromPtDEG(center.getY(), center.getX(), distDEG, ctx, null);
+
+    this.minY = bbox.getMinY();
+    this.maxY = bbox.getMaxY();
+    this.minX = bbox.getMinX();
+    double rawWidth = bbox.getMaxX() - bbox.getMinX();
+    this.maxX = rawWidth < 0 ? bbox.getMinX() + (rawWidth + 360) : bbox.getMaxX();//unwrap dateline
+    this.bboxWorldWrap = bbox.getWidth() == 360;
+
+    this.lat1RAD = toRadians(center.getY());
+    this.lon1RAD = toRadians(center.getX());
+    this.cosLat1 = Math.cos(lat1RAD);
+    // The chord between 2 points on the unit sphere separated by angle d has squared length
+    //  2 - 2*cos(d) == 4 * sin(d/2)^2, which is 4 times the haversine formula's "h".
+    double hsinDist = Math.sin(toRadians(Math.min(distDEG, 180)) * 0.5);
+    this.maxChordSqrdDiv4 = hsinDist * hsinDist;
+  }
+
+  public Point getCenter() {
+    return center;
+  }
+
+  /** The distance in degrees. */
+  public double getDistance() {
+    return distDEG;
+  }
+
+  /** The bounding box of the circle; see {@link DistanceUtils#calcBoxByDistFromPtDEG(double, double, double, SpatialContext, Rectangle)}. */
+  public Rectangle getBoundingBox() {
+    return bbox;
+  }
+
+  /** Is the point (x is longitude, y is latitude, in degrees) within the distance of the center? */
+  public boolean within(double x, double y) {
+    if (y < minY || y > maxY)
+      return false;
+    if (!bboxWorldWrap) {
+      //shift to potentially overlap (see RectangleImpl.relate(Point))
+      if (x < minX)
+        x += 360;
+      else if (x > maxX)
+        x -= 360;
+      if (x < minX || x > maxX)
+        return false;
+    }
+    if (distDEG >= 180)
+      return true;
+    // Like DistanceUtils.distHaversineRAD but we stop at "h"
+    final double lat2RAD = toRadians(y);
+    final double hsinX = Math.sin((lon1RAD - toRadians(x)) * 0.5);
+    final double hsinY = Math.sin((lat1RAD - lat2RAD) * 0.5);
+    final double h = hsinY * hsinY + (cosLat1 * Math.cos(lat2RAD) * hsinX * hsinX);
+    return h <= maxChordSqrdDiv4;
+  }
+
+  /** Convenience for {@link #within(double, double)}. */
+  public boolean within(Point point) {
+    return within(point.getX(), point.getY());
+  }
+
+  @Override
+  public String toString() {
+    return "GeoDistanceQuery(" + center + ", d=" + distDEG + ")";
+  }
+}
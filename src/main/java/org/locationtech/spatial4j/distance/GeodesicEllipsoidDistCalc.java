@@ -0,0 +1,476 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.distance;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+import static org.locationtech.spatial4j.distance.DistanceUtils.toDegrees;
+import static org.locationtech.spatial4j.distance.DistanceUtils.toRadians;
+
+/**
+ * A Distance Calculator for geodesics on the WGS84 ellipsoid, as opposed to a sphere.
+ * <p>
+ * Like the other calculators, distances are in degrees, but since a degree isn't a fixed length on
+ * an ellipsoid, a degree here is defined as {@link DistanceUtils#DEG_TO_KM} kilometers (a degree on
+ * the sphere of the earth's mean radius).  Thus the usual conversions in {@link DistanceUtils}
+ * produce true lengths on the ellipsoid.
+ * <p>
+ * The geodesic problems are solved as described by C. F. F. Karney,
+ * <a href="https://doi.org/10.1007/s00190-012-0578-z">Algorithms for geodesics</a> (2013), which
+ * maps the geodesic onto an auxiliary sphere.  The integrals involved (e.g. for the distance and
+ * the longitude) are evaluated by Gauss-Legendre quadrature instead of Karney's series expansions.
+ * The inverse problem (distance) solves for the azimuth at the first point with a bracketed
+ * root finder.  Unlike Vincenty's method, it always converges, including for nearly antipodal
+ * points.  The results are accurate to well under a millimeter.
+ * <p>
+ * The accurate method costs a few microseconds. If an approximation is acceptable, construct
+ * this calculator with an error tolerance.  Then {@link #distance(Point, double, double)} uses
+ * Lambert's formula for long lines when its error bound for that distance is within the
+ * tolerance.  Its error grows with the distance, by up to 1.5 meters per 1000km.  Beyond 10000km
+ * (a quarter of the way around) it grows faster, so there the accurate method is always used.
+ * <p>
+ * {@link #area(Rectangle)} and {@link #area(Circle)} use the spherical formulas.
+ */
+public class GeodesicEllipsoidDistCalc extends AbstractDistanceCalculator {
+
+  /** The equatorial radius of the WGS84 ellipsoid, in meters. */
+  public static final double WGS84_SEMI_MAJOR_AXIS_M = 6378137.0;
+  /** The flattening of the WGS84 ellipsoid. */
+  public static final double WGS84_FLATTENING = 1 / 298.257223563;
+
+  private static final double DEG_TO_M = DistanceUtils.DEG_TO_KM * 1000;
+  private static final double M_TO_DEG = 1 / DEG_TO_M;
+
+  /**
+   * Lambert's formula's error is bounded by this times the distance times the square of the
+   * flattening, until {@link #LAMBERT_MAX_SIGMA}. Determined empirically with a safety margin.
+   */
+  private static final double LAMBERT_ERROR_FACTOR = 0.15;
+  /** Lambert's formula's error grows faster beyond this angle (and diverges at the antipode). */
+  private static final double LAMBERT_MAX_SIGMA = Math.PI / 2;
+
+  private static final GeodesicSphereDistCalc SPHERE = new GeodesicSphereDistCalc.Haversine();
+
+  private final double a;// semi-major axis
+  private final double f;// flattening
+  private final double b;// semi-minor axis
+  private final double ep2;// second eccentricity, squared
+  private final double approxToleranceM;
+
+  /** Always uses the accurate method. */
+  public GeodesicEllipsoidDistCalc() {
+    this(0);
+  }
+
+  /**
+   * @param approxToleranceM The largest error, in meters, that {@link #distance(Point, double, double)}
+   *                         may have in exchange for speed. 0 disables the approximation.
+   */
+  public GeodesicEllipsoidDistCalc(double approxToleranceM) {
+    if (!(approxToleranceM >= 0))
+      throw new IllegalArgumentException("approxToleranceM must be >= 0: " + approxToleranceM);
+    this.a = WGS84_SEMI_MAJOR_AXIS_M;
+    this.f = WGS84_FLATTENING;
+    this.b = a * (1 - f);
+    this.ep2 = (a * a - b * b) / (b * b);
+    this.approxToleranceM = approxToleranceM;
+  }
+
+  public double getApproxToleranceM() {
+    return approxToleranceM;
+  }
+
+  @Override
+  public double distance(Point from, double toX, double toY) {
+    return distanceM(from.getY(), from.getX(), toY, toX) * M_TO_DEG;
+  }
+
+  /**
+   * The geodesic distance in meters between two lat-lon points given in degrees. It's approximate
+   * if so configured; see the class docs.
+   */
+  public double distanceM(double lat1DEG, double lon1DEG, double lat2DEG, double lon2DEG) {
+    if (lat1DEG == lat2DEG && lon1DEG == lon2DEG)
+      return 0;
+    final double lat1 = toRadians(lat1DEG), lat2 = toRadians(lat2DEG);
+    final double lon12 = toRadians(DistanceUtils.normLonDEG(lon2DEG - lon1DEG));
+    if (approxToleranceM > 0) {
+      double approx = lambertM(lat1, lat2, lon12);
+      if (!Double.isNaN(approx))
+        return approx;
+    }
+    return inverseM(lat1, lat2, lon12);
+  }
+
+  /**
+   * Lambert's formula for long lines, or NaN if its error bound exceeds the tolerance.
+   */
+  private double lambertM(double lat1, double lat2, double lon12) {
+    // reduced latitudes
+    final double beta1 = Math.atan((1 - f) * Math.tan(lat1));
+    final double beta2 = Math.atan((1 - f) * Math.tan(lat2));
+    final double sigma = DistanceUtils.distHaversineRAD(beta1, 0, beta2, lon12);
+    if (sigma > LAMBERT_MAX_SIGMA || LAMBERT_ERROR_FACTOR * f * f * a * sigma > approxToleranceM)
+      return Double.NaN;
+    if (sigma == 0)
+      return 0;
+    final double p = (beta1 + beta2) / 2;
+    final double q = (beta2 - beta1) / 2;
+    final double sinP = Math.sin(p), cosP = Math.cos(p);
+    final double sinQ = Math.sin(q), cosQ = Math.cos(q);
+    final double sinHalfSigma = Math.sin(sigma / 2), cosHalfSigma = Math.cos(sigma / 2);
+    final double sinSigma = Math.sin(sigma);
+    final double x = (sigma - sinSigma) * sinP * sinP * cosQ * cosQ / (cosHalfSigma * cosHalfSigma);
+    final double y = (sigma + sinSigma) * cosP * cosP * sinQ * sinQ / (sinHalfSigma * sinHalfSigma);
+    return a * (sigma - f / 2 * (x + y));
+  }
+
+  /** The accurate inverse problem. Latitudes and the longitude difference are in radians. */
+  private double inverseM(double lat1, double lat2, double lon12) {
+    double lam12 = Math.abs(lon12);// symmetry; [0, PI]
+    // reduced latitudes on the auxiliary sphere (as sin & cos)
+    double sbet1 = (1 - f) * Math.sin(lat1), cbet1 = Math.cos(lat1);
+    double r = Math.hypot(sbet1, cbet1);
+    sbet1 /= r; cbet1 /= r;
+    double sbet2 = (1 - f) * Math.sin(lat2), cbet2 = Math.cos(lat2);
+    r = Math.hypot(sbet2, cbet2);
+    sbet2 /= r; cbet2 /= r;
+    // Make |beta1| >= |beta2| and beta1 <= 0 by swapping the points and reflecting on the equator.
+    if (Math.abs(sbet1) < Math.abs(sbet2)) {
+      double t = sbet1; sbet1 = sbet2; sbet2 = t;
+      t = cbet1; cbet1 = cbet2; cbet2 = t;
+    }
+    if (sbet1 > 0) {
+      sbet1 = -sbet1;
+      sbet2 = -sbet2;
+    }
+
+    if (sbet1 == 0) {
+      if (lam12 <= (1 - f) * Math.PI) {
+        // both on the equator, and the equator is the shortest path
+        return a * lam12;
+      }
+      sbet1 = -0.0;// so that heading south from it starts at sigma -PI (not PI)
+    }
+
+    // lambda12 is a non-decreasing function of alpha1 in [0, PI], going from 0 to PI. Find the root
+    //  with Newton's method from the spherical estimate, keeping to a bracket (bisecting if needed).
+    //  We solve for alpha1 - PI/2, since near the equator lambda12 changes too abruptly around PI/2 to
+    //  resolve with alpha1 itself.
+    final Geodesic geod = new Geodesic();
+    if (lam12 == 0 || lam12 == Math.PI) {// meridional
+      geod.init(sbet1, cbet1, sbet2, cbet2, lam12 - Math.PI / 2);
+      return geod.distance();
+    }
+    double lo = -Math.PI / 2, hi = Math.PI / 2;// g(lo) < 0 < g(hi)
+    double x = Math.atan2(cbet2 * Math.sin(lam12),
+        cbet1 * sbet2 - sbet1 * cbet2 * Math.cos(lam12)) - Math.PI / 2;
+    for (int i = 0; i < 200; i++) {
+      double g = geod.init(sbet1, cbet1, sbet2, cbet2, x) - lam12;
+      if (g < 0) lo = x; else hi = x;
+      if (Math.abs(g) <= 1e-15 || hi - lo <= 4 * Math.ulp(Math.max(-lo, hi)))
+        break;
+      double next = x - g / geod.dlam12dalp1;
+      if (!(next > lo && next < hi))
+        next = (lo + hi) / 2;
+      if (next == x)
+        break;
+      x = next;
+    }
+    return geod.distance();
+  }
+
+  @Override
+  public Point pointOnBearing(Point from, double distDEG, double bearingDEG, SpatialContext ctx, Point reuse) {
+    if (distDEG == 0) {
+      if (reuse == null)
+        return from;
+      reuse.reset(from.getX(), from.getY());
+      return reuse;
+    }
+    Geodesic geod = new Geodesic();
+    geod.direct(toRadians(from.getY()), toRadians(bearingDEG), distDEG * DEG_TO_M);
+    double x = DistanceUtils.normLonDEG(from.getX() + toDegrees(geod.lon12));
+    double y = toDegrees(geod.lat2);
+    if (reuse == null)
+      return ctx.makePoint(x, y);
+    reuse.reset(x, y);
+    return reuse;
+  }
+
+  /**
+   * The latitude bounds are the points due north and south (or a pole, if the distance reaches it), found
+   * with {@link #pointOnBearing(Point, double, double, SpatialContext, Point) direct} solutions. The longitude
+   * bound is where the geodesic from the center arrives heading due east (where the circle is tangent to a
+   * meridian), which is the geodesic's vertex; its azimuth follows from Clairaut's relation, so that takes one
+   * more solution, not a search.  In all it costs about three times {@code pointOnBearing}.
+   */
+  @Override
+  public Rectangle calcBoxByDistFromPt(Point from, double distDEG, SpatialContext ctx, Rectangle reuse) {
+    double minX, maxX, minY, maxY;
+    final double lat = from.getY(), lon = from.getX();
+    final double s = distDEG * DEG_TO_M;
+    if (distDEG == 0) {
+      minX = lon; maxX = lon; minY = lat; maxY = lat;
+    } else {
+      final double lat1 = toRadians(lat);
+      final Geodesic geod = new Geodesic();
+      final boolean northPole = s >= meridianToPoleM(lat1);
+      final boolean southPole = s >= meridianToPoleM(-lat1);
+      if (northPole) {
+        maxY = 90;
+      } else {
+        geod.direct(lat1, 0, s);
+        maxY = toDegrees(geod.lat2);
+      }
+      if (southPole) {
+        minY = -90;
+      } else {
+        geod.direct(lat1, Math.PI, s);
+        minY = toDegrees(geod.lat2);
+      }
+      double lonDelta = 180;
+      if (!northPole && !southPole) {
+        geod.toMaxLon(lat1, s);
+        lonDelta = toDegrees(geod.lon12);
+      }
+      if (lonDelta >= 180) {
+        minX = -180; maxX = 180;
+      } else {
+        minX = DistanceUtils.normLonDEG(lon - lonDelta);
+        maxX = DistanceUtils.normLonDEG(lon + lonDelta);
+      }
+    }
+    if (reuse == null) {
+      return ctx.makeRectangle(minX, maxX, minY, maxY);
+    } else {
+      reuse.reset(minX, maxX, minY, maxY);
+      return reuse;
+    }
+  }
+
+  @Override
+  public double calcBoxByDistFromPt_yHorizAxisDEG(Point from, double distDEG, SpatialContext ctx) {
+    if (distDEG == 0)
+      return from.getY();
+    final double lat1 = toRadians(from.getY());
+    final double s = distDEG * DEG_TO_M;
+    if (s >= meridianToPoleM(lat1))
+      return 90;
+    if (s >= meridianToPoleM(-lat1))
+      return -90;
+    Geodesic geod = new Geodesic();
+    geod.toMaxLon(lat1, s);
+    return toDegrees(geod.lat2);
+  }
+
+  /** The length of the meridian arc from latitude lat1 (radians) to the north pole. */
+  private double meridianToPoleM(double lat1) {
+    Geodesic geod = new Geodesic();
+    geod.k2 = ep2;// cos(alpha0) == 1
+    geod.integrate(Math.atan2((1 - f) * Math.sin(lat1), Math.cos(lat1)), Math.PI / 2);
+    return b * geod.i1;
+  }
+
+  @Override
+  public double area(Rectangle rect) {
+    return SPHERE.area(rect);
+  }
+
+  @Override
+  public double area(Circle circle) {
+    return SPHERE.area(circle);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    GeodesicEllipsoidDistCalc that = (GeodesicEllipsoidDistCalc) o;
+    return Double.compare(that.approxToleranceM, approxToleranceM) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(approxToleranceM);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + (approxToleranceM > 0 ? "(approxToleranceM=" + approxToleranceM + ")" : "");
+  }
+
+  //
+  // The geodesic on the auxiliary sphere, with numerical integration
+  //
+
+  // Gauss-Legendre nodes & weights on [-1, 1]; plenty for these smooth integrands over PI/2.
+  private static final int GL_N = 8;
+  private static final double[] GL_X = new double[GL_N], GL_W = new double[GL_N];
+  private static final double MAX_PANEL = Math.PI / 2;
+  static {
+    // Newton's method on the Legendre polynomial, from the Chebyshev approximation of each root
+    for (int i = 0; i < GL_N; i++) {
+      double x = Math.cos(Math.PI * (i + 0.75) / (GL_N + 0.5));
+      double dp;
+      while (true) {
+        double p0 = 1, p1 = x;
+        for (int k = 2; k <= GL_N; k++) {
+          double p2 = ((2 * k - 1) * x * p1 - (k - 1) * p0) / k;
+          p0 = p1;
+          p1 = p2;
+        }
+        dp = GL_N * (x * p1 - p0) / (x * x - 1);
+        double dx = p1 / dp;
+        x -= dx;
+        if (Math.abs(dx) <= 1e-16)
+          break;
+      }
+      GL_X[i] = x;
+      GL_W[i] = 2 / ((1 - x * x) * dp * dp);
+    }
+  }
+
+  /**
+   * A geodesic starting at a given reduced latitude and azimuth, on the auxiliary sphere. Mutable;
+   * not thread-safe.
+   */
+  private class Geodesic {
+    double salp0, calp0, k2;// the azimuth at the equator crossing, and the integrands' parameter
+    double sig1, sig2;// the arc on the auxiliary sphere
+    // integrate() results: the integrals over the arc of, with w = sqrt(1 + k2 * sin(sigma)^2):
+    double i1;// w; the distance on the ellipsoid is b * i1
+    double i2;// 1 / w
+    double i3;// (2 - f) / (1 + (1 - f) * w)
+    // init() results:
+    double dlam12dalp1;
+    // direct() results:
+    double lat2, lon12;
+
+    /** Starts at beta1 with azimuth alp1. */
+    private void start(double sbet1, double cbet1, double salp1, double calp1) {
+      salp0 = salp1 * cbet1;// Clairaut
+      calp0 = Math.hypot(calp1, salp1 * sbet1);
+      k2 = ep2 * calp0 * calp0;
+      sig1 = Math.atan2(sbet1, calp1 * cbet1);
+    }
+
+    /** Integrates over sigma from s1 to s2 (which may be less than s1), setting i1, i2 and i3. */
+    void integrate(double s1, double s2) {
+      final double len = s2 - s1;
+      final int panels = Math.max(1, (int) Math.ceil(Math.abs(len) / MAX_PANEL));
+      final double half = len / panels / 2;
+      double sum1 = 0, sum2 = 0, sum3 = 0;
+      for (int p = 0; p < panels; p++) {
+        final double mid = s1 + (2 * p + 1) * half;
+        for (int i = 0; i < GL_N; i++) {
+          final double sinSigma = Math.sin(mid + half * GL_X[i]);
+          final double w = Math.sqrt(1 + k2 * sinSigma * sinSigma);
+          sum1 += GL_W[i] * w;
+          sum2 += GL_W[i] / w;
+          sum3 += GL_W[i] * (2 - f) / (1 + (1 - f) * w);
+        }
+      }
+      i1 = sum1 * half;
+      i2 = sum2 * half;
+      i3 = sum3 * half;
+    }
+
+    /**
+     * For the inverse problem: sets up the geodesic leaving beta1 with azimuth alp1 and ending where it
+     * first reaches beta2 heading north. Requires beta1 &lt;= 0 and |beta2| &lt;= |beta1|.
+     *
+     * @param alp1MinusHalfPi alpha1 - PI/2
+     * @return the longitude difference.
+     */
+    double init(double sbet1, double cbet1, double sbet2, double cbet2, double alp1MinusHalfPi) {
+      double calp1 = -Math.sin(alp1MinusHalfPi);
+      start(sbet1, cbet1, Math.cos(alp1MinusHalfPi), calp1);
+      // cos(alp2) * cos(bet2), arranged to reduce cancellation
+      double calp2cbet2 = Math.sqrt(Math.max(0,
+          calp1 * cbet1 * calp1 * cbet1 + (cbet2 - cbet1) * (cbet2 + cbet1)));
+      sig2 = Math.atan2(sbet2, calp2cbet2);
+      integrate(sig1, sig2);
+      // the derivative is the reduced length m12 / (a * cos(alp2) * cos(bet2))
+      double ssig1 = Math.sin(sig1), csig1 = Math.cos(sig1);
+      double ssig2 = Math.sin(sig2), csig2 = Math.cos(sig2);
+      double w1 = Math.sqrt(1 + k2 * ssig1 * ssig1), w2 = Math.sqrt(1 + k2 * ssig2 * ssig2);
+      double m12 = b * (w2 * csig1 * ssig2 - w1 * ssig1 * csig2 - csig1 * csig2 * (i1 - i2));
+      dlam12dalp1 = m12 / (a * calp2cbet2);
+      return longitude();
+    }
+
+    double distance() {
+      return b * i1;
+    }
+
+    /** The longitude difference over the arc, given integrate() was called for it. */
+    private double longitude() {
+      double omg1 = Math.atan2(salp0 * Math.sin(sig1), Math.cos(sig1));
+      double omg2 = Math.atan2(salp0 * Math.sin(sig2), Math.cos(sig2));
+      return (omg2 - omg1) - f * salp0 * i3;
+    }
+
+    /** Solves the direct problem; sets lat2 and lon12 (radians). */
+    void direct(double lat1, double alp1, double s) {
+      double sbet1 = (1 - f) * Math.sin(lat1), cbet1 = Math.cos(lat1);
+      double r = Math.hypot(sbet1, cbet1);
+      start(sbet1 / r, cbet1 / r, Math.sin(alp1), Math.cos(alp1));
+      // Newton's method to find sig2 such that b * I1(sig1, sig2) == s
+      final double target = s / b;
+      sig2 = sig1 + target;
+      for (int i = 0; i < 20; i++) {
+        integrate(sig1, sig2);
+        double err = i1 - target;
+        if (Math.abs(err) <= 1e-15)
+          break;
+        double sinSig2 = Math.sin(sig2);
+        sig2 -= err / Math.sqrt(1 + k2 * sinSig2 * sinSig2);
+      }
+      double sbet2 = calp0 * Math.sin(sig2);
+      double cbet2 = Math.hypot(salp0, calp0 * Math.cos(sig2));
+      lat2 = Math.atan2(sbet2, (1 - f) * cbet2);
+      lon12 = longitude();
+    }
+
+    /**
+     * Solves for the point furthest east of lat1 at distance s, which mustn't reach a pole; sets lat2 and
+     * lon12 (radians). There, the geodesic heads due east, so that point is the geodesic's vertex (sigma is
+     * PI/2) and by Clairaut's relation sin(beta1) = sin(beta2) * cos(sigma12) on the auxiliary sphere. Solved
+     * for sigma12 by Newton's method, like {@link #direct(double, double, double)}.
+     */
+    void toMaxLon(double lat1, double s) {
+      double sbet1 = (1 - f) * Math.sin(Math.abs(lat1)), cbet1 = Math.cos(lat1);// north by symmetry
+      final double r = Math.hypot(sbet1, cbet1);
+      sbet1 /= r;
+      final double target = s / b;
+      double sig12 = target;
+      double sbet2 = 0;
+      for (int i = 0; i < 20; i++) {
+        sbet2 = Math.min(1, sbet1 / Math.cos(sig12));
+        calp0 = sbet2;
+        salp0 = Math.sqrt((1 - sbet2) * (1 + sbet2));
+        k2 = ep2 * calp0 * calp0;
+        sig1 = Math.PI / 2 - sig12;
+        sig2 = Math.PI / 2;
+        integrate(sig1, sig2);
+        double err = i1 - target;
+        if (Math.abs(err) <= 1e-15)
+          break;
+        double sinSig1 = Math.sin(sig1);
+        sig12 -= err / Math.sqrt(1 + k2 * sinSig1 * sinSig1);
+      }
+      lat2 = Math.copySign(Math.atan2(sbet2, (1 - f) * salp0), lat1);
+      lon12 = longitude();
+    }
+  }
+}
@@ -85,6 +85,10 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
 
   protected abstract double distanceLatLonRAD(double lat1, double lon1, double lat2, double lon2);
 
+  // The distances() overrides below inline the corresponding DistanceUtils formula with the terms that
+  //  only depend on "from" computed once.  Keep the arithmetic in the same order so that the results are
+  //  identical to distance().
+
   public static class Haversine extends GeodesicSphereDistCalc {
 
     @Override
@@ -92,6 +96,28 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
       return DistanceUtils.distHaversineRAD(lat1,lon1,lat2,lon2);
     }
 
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int off, int len, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = off, end = off + len; i < end; i++) {
+        final double lat2 = toRadians(ys[i]);
+        final double lon2 = toRadians(xs[i]);
+        if (lat1 == lat2 && lon1 == lon2) {
+          out[i] = 0;
+          continue;
+        }
+        double hsinX = Math.sin((lon1 - lon2) * 0.5);
+        double hsinY = Math.sin((lat1 - lat2) * 0.5);
+        double h = hsinY * hsinY +
+                (cosLat1 * Math.cos(lat2) * hsinX * hsinX);
+        if (h > 1)//numeric robustness issue. If we didn't check, the answer would be NaN!
+          h = 1;
+        out[i] = toDegrees(2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h)));
+      }
+    }
+
   }
 
   public static class LawOfCosines extends GeodesicSphereDistCalc {
@@ -101,6 +127,30 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
       return DistanceUtils.distLawOfCosinesRAD(lat1, lon1, lat2, lon2);
     }
 
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int off, int len, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = off, end = off + len; i < end; i++) {
+        final double lat2 = toRadians(ys[i]);
+        final double lon2 = toRadians(xs[i]);
+        if (lat1 == lat2 && lon1 == lon2) {
+          out[i] = 0;
+          continue;
+        }
+        double cosB = (sinLat1 * Math.sin(lat2))
+                + (cosLat1 * Math.cos(lat2) * Math.cos(lon2 - lon1));
+        if (cosB < -1.0)
+          out[i] = toDegrees(Math.PI);
+        else if (cosB >= 1.0)
+          out[i] = 0;
+        else
+          out[i] = toDegrees(Math.acos(cosB));
+      }
+    }
+
   }
 
   public static class Vincenty extends GeodesicSphereDistCalc {
@@ -109,5 +159,32 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
     protected double distanceLatLonRAD(double lat1, double lon1, double lat2, double lon2) {
       return DistanceUtils.distVincentyRAD(lat1, lon1, lat2, lon2);
     }
+
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int off, int len, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = off, end = off + len; i < end; i++) {
+        final double lat2 = toRadians(ys[i]);
+        final double lon2 = toRadians(xs[i]);
+        if (lat1 == lat2 && lon1 == lon2) {
+          out[i] = 0;
+          continue;
+        }
+        double cosLat2 = Math.cos(lat2);
+        double sinLat2 = Math.sin(lat2);
+        double dLon = lon2 - lon1;
+        double cosDLon = Math.cos(dLon);
+        double sinDLon = Math.sin(dLon);
+
+        double a = cosLat2 * sinDLon;
+        double b = cosLat1*sinLat2 - sinLat1*cosLat2*cosDLon;
+        double c = sinLat1*sinLat2 + cosLat1*cosLat2*cosDLon;
+
+        out[i] = toDegrees(Math.atan2(Math.sqrt(a*a+b*b),c));
+      }
+    }
   }
 }
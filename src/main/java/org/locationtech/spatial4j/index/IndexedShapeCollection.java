@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.index;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.locationtech.spatial4j.shape.SpatialRelation.CONTAINS;
+import static org.locationtech.spatial4j.shape.SpatialRelation.DISJOINT;
+import static org.locationtech.spatial4j.shape.SpatialRelation.INTERSECTS;
+
+/**
+ * A {@link ShapeCollection} with an {@link STRtree} of its shapes, so that {@link #relate(Shape)} only relates
+ * the shapes whose bounding box intersects that of the other shape, instead of all of them. The result is
+ * the same as ShapeCollection's, including the short-circuit behavior of {@link #relateContainsShortCircuits()}:
+ * the candidates are visited in the collection's order, and the others are DISJOINT.
+ * <p>
+ * Building the tree is O(N log N), so this is worthwhile for collections of many shapes that are related
+ * many times.
+ */
+public class IndexedShapeCollection<S extends Shape> extends ShapeCollection<S> {
+
+  protected final STRtree<S> tree;
+
+  /**
+   * WARNING: {@code shapes} is copied by reference.
+   * @param shapes Copied by reference! (make a defensive copy if caller modifies)
+   */
+  public IndexedShapeCollection(List<S> shapes, SpatialContext ctx) {
+    super(shapes, ctx);
+    this.tree = new STRtree<>(ctx, shapes);
+  }
+
+  public STRtree<S> getTree() {
+    return tree;
+  }
+
+  @Override
+  public SpatialRelation relate(Shape other) {
+    final SpatialRelation bboxSect = bbox.relate(other);
+    if (bboxSect == SpatialRelation.DISJOINT || bboxSect == SpatialRelation.WITHIN)
+      return bboxSect;
+
+    final BitSet candidates = new BitSet(shapes.size());
+    tree.queryBoundingBox(other, candidates);
+
+    final boolean containsWillShortCircuit = (other instanceof Point) ||
+        relateContainsShortCircuits();
+    SpatialRelation sect = null;
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      SpatialRelation nextSect = shapes.get(i).relate(other);
+
+      if (sect == null) {//first pass
+        sect = nextSect;
+      } else {
+        sect = sect.combine(nextSect);
+      }
+
+      if (sect == INTERSECTS)
+        return INTERSECTS;
+
+      if (sect == CONTAINS && containsWillShortCircuit)
+        return CONTAINS;
+    }
+    // the shapes that weren't candidates are disjoint
+    if (candidates.cardinality() < shapes.size())
+      sect = DISJOINT.combine(sect);
+    return sect;
+  }
+}
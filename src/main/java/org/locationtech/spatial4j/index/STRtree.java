@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.index;
+
+import org.locationtech.spatial4j.SpatialPredicate;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable R-tree of shapes, keyed on their bounding boxes and bulk-loaded with the Sort-Tile-Recursive
+ * (STR) algorithm. {@link #query(Shape, SpatialPredicate)} finds candidates by their bounding boxes and then
+ * evaluates the predicate on each, which is exact (it uses {@link Shape#relate(Shape)}).
+ * <p>
+ * The shapes (the leaf entries) are stored first, in STR order, followed by each level of nodes up to the root.
+ * Each node spans a run of consecutive entries or nodes of the level below.  Bounds are kept in a flat
+ * {@code double[]} of minX, minY, maxX, maxY per entry &amp; node.
+ * <p>
+ * In a geo context, a bounding box crossing the dateline ({@link Rectangle#getCrossesDateLine()}) is stored
+ * unwrapped such that maxX exceeds 180, and searches also test the query shifted by 360 degrees either way.
+ * Thus each shape is stored once.
+ * <p>
+ * Immutable &amp; threadsafe (if the shapes are).
+ */
+public class STRtree<S extends Shape> {
+
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  private static final double[] NO_SHIFTS = {0};
+  private static final double[] GEO_SHIFTS = {0, -360, 360};
+
+  private final SpatialContext ctx;
+  private final int nodeCapacity;
+  private final List<S> shapes;// in STR order; the entries
+  private final int[] inputIndexes;// by entry; the index in the list given to the constructor
+  private final double[] bounds;// minX, minY, maxX, maxY of each entry, then of each node level by level
+  private final int[] firstChild;// by node id minus the number of entries
+  private final int[] endChild;// (exclusive)
+  private final int root;// -1 if empty
+  private final double[] shifts;
+
+  public STRtree(SpatialContext ctx, List<? extends S> shapes) {
+    this(ctx, shapes, DEFAULT_NODE_CAPACITY);
+  }
+
+  public STRtree(SpatialContext ctx, List<? extends S> shapes, int nodeCapacity) {
+    if (nodeCapacity < 2)
+      throw new IllegalArgumentException("nodeCapacity must be >= 2: " + nodeCapacity);
+    this.ctx = ctx;
+    this.nodeCapacity = nodeCapacity;
+    this.shifts = ctx.isGeo() ? GEO_SHIFTS : NO_SHIFTS;
+    final int numEntries = shapes.size();
+
+    int total = 0;
+    for (int size = numEntries; ; size = ceilDiv(size, nodeCapacity)) {
+      total += size;
+      if (size <= 1)
+        break;
+    }
+    this.bounds = new double[total * 4];
+    this.firstChild = new int[total - numEntries];
+    this.endChild = new int[total - numEntries];
+
+    // Entries
+    double[] entryBounds = new double[numEntries * 4];
+    for (int i = 0; i < numEntries; i++) {
+      setBounds(entryBounds, i, shapes.get(i).getBoundingBox());
+    }
+    int[] order = strOrder(entryBounds, 0, numEntries);
+    this.inputIndexes = order;
+    List<S> sorted = new ArrayList<>(numEntries);
+    for (int i = 0; i < numEntries; i++) {
+      sorted.add(shapes.get(order[i]));
+      System.arraycopy(entryBounds, order[i] * 4, bounds, i * 4, 4);
+    }
+    this.shapes = Collections.unmodifiableList(sorted);
+
+    // Nodes, a level at a time. Each level's nodes are formed in the STR order of the level below; the level
+    //  below is re-ordered first (carrying its child ranges along) unless it's the entries, done above.
+    int levelStart = 0;
+    int levelSize = numEntries;
+    while (levelSize > 1) {
+      if (levelStart >= numEntries) {
+        order = strOrder(bounds, levelStart, levelSize);
+        double[] levelBounds = Arrays.copyOfRange(bounds, levelStart * 4, (levelStart + levelSize) * 4);
+        int[] levelFirst = Arrays.copyOfRange(firstChild, levelStart - numEntries, levelStart - numEntries + levelSize);
+        int[] levelEnd = Arrays.copyOfRange(endChild, levelStart - numEntries, levelStart - numEntries + levelSize);
+        for (int i = 0; i < levelSize; i++) {
+          System.arraycopy(levelBounds, order[i] * 4, bounds, (levelStart + i) * 4, 4);
+          firstChild[levelStart - numEntries + i] = levelFirst[order[i]];
+          endChild[levelStart - numEntries + i] = levelEnd[order[i]];
+        }
+      }
+      final int parentStart = levelStart + levelSize;
+      final int parentSize = ceilDiv(levelSize, nodeCapacity);
+      for (int p = 0; p < parentSize; p++) {
+        final int node = parentStart + p;
+        final int from = levelStart + p * nodeCapacity;
+        final int to = Math.min(from + nodeCapacity, levelStart + levelSize);
+        firstChild[node - numEntries] = from;
+        endChild[node - numEntries] = to;
+        unionBounds(from, to, node);
+      }
+      levelStart = parentStart;
+      levelSize = parentSize;
+    }
+    this.root = numEntries == 0 ? -1 : total - 1;
+  }
+
+  private static int ceilDiv(int a, int b) {
+    return (a + b - 1) / b;
+  }
+
+  private void setBounds(double[] b, int i, Rectangle bbox) {
+    b[i * 4] = bbox.getMinX();
+    b[i * 4 + 1] = bbox.getMinY();
+    // unwrap the dateline (see RectangleImpl.relate(Point))
+    b[i * 4 + 2] = bbox.getCrossesDateLine() ? bbox.getMinX() + bbox.getWidth() : bbox.getMaxX();
+    b[i * 4 + 3] = bbox.getMaxY();
+  }
+
+  private void unionBounds(int from, int to, int node) {
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (int i = from; i < to; i++) {
+      if (Double.isNaN(bounds[i * 4]))
+        continue;// empty shape
+      minX = Math.min(minX, bounds[i * 4]);
+      minY = Math.min(minY, bounds[i * 4 + 1]);
+      maxX = Math.max(maxX, bounds[i * 4 + 2]);
+      maxY = Math.max(maxY, bounds[i * 4 + 3]);
+    }
+    bounds[node * 4] = minX;
+    bounds[node * 4 + 1] = minY;
+    bounds[node * 4 + 2] = maxX;
+    bounds[node * 4 + 3] = maxY;
+  }
+
+  /**
+   * Sort-Tile-Recursive order of the boxes at [start, start+size) of {@code b}: sorted by center X, cut into
+   * vertical slices of about sqrt(#nodes) nodes worth each, then each slice sorted by center Y.
+   */
+  private int[] strOrder(double[] b, int start, int size) {
+    final double[] centerX = new double[size];
+    final double[] centerY = new double[size];
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      final int j = (start + i) * 4;
+      double x = (b[j] + b[j + 2]) * 0.5;
+      if (x > 180 && ctx.isGeo())
+        x -= 360;
+      centerX[i] = x;
+      centerY[i] = (b[j + 1] + b[j + 3]) * 0.5;
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(centerX[o1], centerX[o2]);
+      }
+    });
+    final int numNodes = ceilDiv(size, nodeCapacity);
+    final int sliceSize = (int) Math.ceil(Math.sqrt(numNodes)) * nodeCapacity;
+    final Comparator<Integer> yComparator = new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(centerY[o1], centerY[o2]);
+      }
+    };
+    for (int from = 0; from < size; from += sliceSize) {
+      Arrays.sort(order, from, Math.min(from + sliceSize, size), yComparator);
+    }
+    int[] result = new int[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = order[i];
+    }
+    return result;
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  public int getNodeCapacity() {
+    return nodeCapacity;
+  }
+
+  public int size() {
+    return shapes.size();
+  }
+
+  /** The indexed shapes, in the tree's (STR) order. */
+  public List<S> getShapes() {
+    return shapes;
+  }
+
+  /**
+   * The shapes whose bounding box intersects that of {@code queryShape}, in the tree's order. This is the
+   * candidate search of {@link #query(Shape, SpatialPredicate)}; there's no exact refinement.
+   */
+  public List<S> queryBoundingBox(Shape queryShape) {
+    final List<S> results = new ArrayList<>();
+    if (root < 0)
+      return results;
+    final BitSet hits = new BitSet(shapes.size());
+    search(queryShape.getBoundingBox(), hits);
+    for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+      results.add(shapes.get(i));
+    }
+    return results;
+  }
+
+  /**
+   * Sets the bit of each shape whose bounding box intersects that of {@code queryShape}. Unlike the other
+   * queries, the bit is the shape's index in the list given to the constructor, not in the tree's order.
+   */
+  public void queryBoundingBox(Shape queryShape, BitSet hits) {
+    if (root < 0)
+      return;
+    final BitSet entryHits = new BitSet(shapes.size());
+    search(queryShape.getBoundingBox(), entryHits);
+    for (int i = entryHits.nextSetBit(0); i >= 0; i = entryHits.nextSetBit(i + 1)) {
+      hits.set(inputIndexes[i]);
+    }
+  }
+
+  /**
+   * The shapes for which {@code predicate.evaluate(shape, queryShape)} is true, in the tree's order.
+   * The built-in predicates (those of {@link SpatialPredicate#values()}) other than
+   * {@link SpatialPredicate#IsDisjointTo} can only match shapes whose bounding box intersects that of the
+   * query, so only those are evaluated. For IsDisjointTo, the other shapes match without evaluation. For
+   * any other predicate, every shape is evaluated.
+   */
+  public List<S> query(Shape queryShape, SpatialPredicate predicate) {
+    final List<S> results = new ArrayList<>();
+    if (root < 0)
+      return results;
+    final boolean disjoint = predicate == SpatialPredicate.IsDisjointTo;
+    final SpatialPredicate.Evaluator evaluator = predicate.prepare(queryShape);
+    if (queryShape.isEmpty() || !(disjoint || SpatialPredicate.values().contains(predicate))) {
+      for (S shape : shapes) {// can't use the bounding boxes
+        if (evaluator.evaluate(shape))
+          results.add(shape);
+      }
+      return results;
+    }
+    final BitSet hits = new BitSet(shapes.size());
+    search(queryShape.getBoundingBox(), hits);
+    if (disjoint) {
+      for (int i = 0; i < shapes.size(); i++) {
+        final S shape = shapes.get(i);
+        if (!hits.get(i) || evaluator.evaluate(shape))
+          results.add(shape);
+      }
+    } else {
+      for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+        final S shape = shapes.get(i);
+        if (evaluator.evaluate(shape))
+          results.add(shape);
+      }
+    }
+    return results;
+  }
+
+  /** Sets the bit of each entry whose bounding box intersects {@code queryBBox}. */
+  private void search(Rectangle queryBBox, BitSet hits) {
+    if (queryBBox.isEmpty())
+      return;
+    final double qMinX = queryBBox.getMinX();
+    final double qMaxX = queryBBox.getCrossesDateLine() ? qMinX + queryBBox.getWidth() : queryBBox.getMaxX();
+    final double qMinY = queryBBox.getMinY();
+    final double qMaxY = queryBBox.getMaxY();
+    final int numEntries = shapes.size();
+    int[] stack = new int[32];
+    int stackSize = 0;
+    stack[stackSize++] = root;
+    while (stackSize > 0) {
+      final int id = stack[--stackSize];
+      if (!intersects(id, qMinX, qMaxX, qMinY, qMaxY))
+        continue;
+      if (id < numEntries) {
+        hits.set(id);
+        continue;
+      }
+      final int from = firstChild[id - numEntries];
+      final int to = endChild[id - numEntries];
+      if (stackSize + (to - from) > stack.length)
+        stack = Arrays.copyOf(stack, Math.max(stack.length * 2, stackSize + (to - from)));
+      for (int child = to - 1; child >= from; child--) {
+        stack[stackSize++] = child;
+      }
+    }
+  }
+
+  private boolean intersects(int id, double qMinX, double qMaxX, double qMinY, double qMaxY) {
+    final int j = id * 4;
+    if (bounds[j + 1] > qMaxY || bounds[j + 3] < qMinY)
+      return false;
+    for (double shift : shifts) {
+      if (bounds[j] <= qMaxX + shift && bounds[j + 2] >= qMinX + shift)
+        return true;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "STRtree{size=" + shapes.size() + ", nodeCapacity=" + nodeCapacity + "}";
+  }
+}
@@ -20,6 +20,10 @@ import org.locationtech.spatial4j.shape.ShapeCollection;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 
 /**
@@ -27,6 +31,10 @@ import java.util.ArrayList;
  * Binary (WKB). The initial release is simple but it could get more optimized to use fewer bytes or
  * to write &amp; read pre-computed index structures.
  * <p>
+ * Shapes can be read and written with a {@link DataInput}/{@link DataOutput}, or with a {@link ByteBuffer}
+ * (e.g. a direct or memory-mapped one) via {@link ByteBufferDataInput}/{@link ByteBufferDataOutput}.  Both produce
+ * the same bytes.
+ * <p>
  * Immutable and thread-safe.
  */
 public class BinaryCodec {
@@ -175,4 +183,74 @@ public class BinaryCodec {
     }
   }
 
+  // --------------------------------------------------------------
+  // ByteBuffer
+  // --------------------------------------------------------------
+
+  // These delegate to the DataInput/DataOutput methods, so there's one implementation of the format.
+
+  /**
+   * Reads a shape at the buffer's position, which is advanced past it.  The buffer's byte order is
+   * ignored; the format is big-endian.
+   *
+   * @throws java.nio.BufferUnderflowException if the shape extends beyond the limit
+   */
+  public Shape readShape(ByteBuffer buf) {
+    ByteBuffer in = bigEndian(buf);
+    Shape s;
+    try {
+      s = readShape(new ByteBufferDataInput(in));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);//not plausible
+    }
+    if (in != buf)
+      ((Buffer) buf).position(in.position());// (cast for Java 8)
+    return s;
+  }
+
+  /**
+   * Reads a shape at the index of the buffer, without changing the buffer's position.  So a buffer may be
+   * shared by threads reading it.
+   */
+  public Shape readShape(ByteBuffer buf, int index) {
+    ByteBuffer in = buf.duplicate().order(ByteOrder.BIG_ENDIAN);
+    ((Buffer) in).position(index);// (cast for Java 8)
+    return readShape(in);
+  }
+
+  /**
+   * Writes a shape at the buffer's position, which is advanced past it.  The buffer's byte order is
+   * ignored; the format is big-endian.
+   *
+   * @throws java.nio.BufferOverflowException if there isn't room for the shape before the limit
+   */
+  public void writeShape(ByteBuffer buf, Shape s) {
+    ByteBuffer out = bigEndian(buf);
+    try {
+      writeShape(new ByteBufferDataOutput(out), s);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);//not plausible
+    }
+    if (out != buf)
+      ((Buffer) buf).position(out.position());// (cast for Java 8)
+  }
+
+  /**
+   * Writes a shape at the index of the buffer, without changing the buffer's position.
+   * @return the number of bytes written
+   */
+  public int writeShape(ByteBuffer buf, int index, Shape s) {
+    ByteBuffer out = buf.duplicate().order(ByteOrder.BIG_ENDIAN);
+    ((Buffer) out).position(index);// (cast for Java 8)
+    writeShape(out, s);
+    return out.position() - index;
+  }
+
+  /** Returns the buffer if it's big-endian, else a big-endian duplicate of it (sharing the content). */
+  protected static ByteBuffer bigEndian(ByteBuffer buf) {
+    if (buf.order() == ByteOrder.BIG_ENDIAN)
+      return buf;
+    return buf.duplicate().order(ByteOrder.BIG_ENDIAN);
+  }
+
 }
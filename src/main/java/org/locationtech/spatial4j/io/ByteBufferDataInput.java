@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link DataInput} reading a big-endian {@link ByteBuffer} from its position, which it advances.  Each method
+ * is a single get on the buffer; nothing is copied or buffered.  This lets {@link BinaryCodec} implement its
+ * format once, for both streams and buffers.  Reading beyond the limit throws
+ * {@link java.nio.BufferUnderflowException}.
+ *
+ * @see ByteBufferDataOutput
+ */
+public final class ByteBufferDataInput implements DataInput {
+
+  private final ByteBuffer buf;
+
+  public ByteBufferDataInput(ByteBuffer buf) {
+    if (buf.order() != ByteOrder.BIG_ENDIAN)
+      throw new IllegalArgumentException("buffer must be big-endian");
+    this.buf = buf;
+  }
+
+  /** The buffer; for a reader that can use it directly. */
+  public ByteBuffer getBuffer() {
+    return buf;
+  }
+
+  @Override
+  public void readFully(byte[] b) {
+    buf.get(b);
+  }
+
+  @Override
+  public void readFully(byte[] b, int off, int len) {
+    buf.get(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(int n) {
+    final int skip = Math.max(0, Math.min(n, buf.remaining()));
+    ((Buffer) buf).position(buf.position() + skip);// (cast for Java 8)
+    return skip;
+  }
+
+  @Override
+  public boolean readBoolean() {
+    return buf.get() != 0;
+  }
+
+  @Override
+  public byte readByte() {
+    return buf.get();
+  }
+
+  @Override
+  public int readUnsignedByte() {
+    return buf.get() & 0xFF;
+  }
+
+  @Override
+  public short readShort() {
+    return buf.getShort();
+  }
+
+  @Override
+  public int readUnsignedShort() {
+    return buf.getShort() & 0xFFFF;
+  }
+
+  @Override
+  public char readChar() {
+    return buf.getChar();
+  }
+
+  @Override
+  public int readInt() {
+    return buf.getInt();
+  }
+
+  @Override
+  public long readLong() {
+    return buf.getLong();
+  }
+
+  @Override
+  public float readFloat() {
+    return buf.getFloat();
+  }
+
+  @Override
+  public double readDouble() {
+    return buf.getDouble();
+  }
+
+  /**
+   * Like {@link DataInputStream#readLine()}: reads bytes as chars up to a "\n", "\r", or "\r\n" (consumed but
+   * not returned) or the limit.  Returns null if there are no bytes remaining.
+   */
+  @Override
+  public String readLine() {
+    if (!buf.hasRemaining())
+      return null;
+    final StringBuilder line = new StringBuilder();
+    while (buf.hasRemaining()) {
+      final int c = buf.get() & 0xFF;
+      if (c == '\n')
+        break;
+      if (c == '\r') {
+        if (buf.hasRemaining() && buf.get(buf.position()) == '\n')
+          ((Buffer) buf).position(buf.position() + 1);// (cast for Java 8)
+        break;
+      }
+      line.append((char) c);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public String readUTF() throws IOException {
+    return DataInputStream.readUTF(this);
+  }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link DataOutput} writing to a big-endian {@link ByteBuffer} at its position, which it advances.  Each method
+ * is a single put on the buffer.  Writing beyond the limit throws {@link java.nio.BufferOverflowException}.
+ *
+ * @see ByteBufferDataInput
+ */
+public final class ByteBufferDataOutput implements DataOutput {
+
+  private final ByteBuffer buf;
+
+  public ByteBufferDataOutput(ByteBuffer buf) {
+    if (buf.order() != ByteOrder.BIG_ENDIAN)
+      throw new IllegalArgumentException("buffer must be big-endian");
+    this.buf = buf;
+  }
+
+  /** The buffer; for a writer that can use it directly. */
+  public ByteBuffer getBuffer() {
+    return buf;
+  }
+
+  @Override
+  public void write(int b) {
+    buf.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b) {
+    buf.put(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    buf.put(b, off, len);
+  }
+
+  @Override
+  public void writeBoolean(boolean v) {
+    buf.put(v ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public void writeByte(int v) {
+    buf.put((byte) v);
+  }
+
+  @Override
+  public void writeShort(int v) {
+    buf.putShort((short) v);
+  }
+
+  @Override
+  public void writeChar(int v) {
+    buf.putChar((char) v);
+  }
+
+  @Override
+  public void writeInt(int v) {
+    buf.putInt(v);
+  }
+
+  @Override
+  public void writeLong(long v) {
+    buf.putLong(v);
+  }
+
+  @Override
+  public void writeFloat(float v) {
+    buf.putFloat(v);
+  }
+
+  @Override
+  public void writeDouble(double v) {
+    buf.putDouble(v);
+  }
+
+  @Override
+  public void writeBytes(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      buf.put((byte) s.charAt(i));
+    }
+  }
+
+  @Override
+  public void writeChars(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      buf.putChar(s.charAt(i));
+    }
+  }
+
+  @Override
+  public void writeUTF(String s) throws IOException {
+    // modified UTF-8 is rare here; let DataOutputStream encode it
+    ByteArrayOutputStream baos = new ByteArrayOutputStream(s.length() + 2);
+    new DataOutputStream(baos).writeUTF(s);
+    buf.put(baos.toByteArray());
+  }
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * A more compact, lossy, variant of {@link BinaryCodec}.  Coordinates are rounded to a grid
+ * ({@link SpatialContextFactory#binaryCodecGridSize}, 1e-7 by default; about a centimeter in degrees), and
+ * written as variable-length (varint) zig-zag encoded integers.  A coordinate following another of the same shape
+ * (e.g. the max of a rectangle) is written as the difference from it, which is usually small, and so is short.
+ * A value that isn't on the grid's range (e.g. NaN of an empty point, or huge) is written as a double.
+ * <p>
+ * The format is not compatible with that of {@link BinaryCodec}.  Immutable and thread-safe.
+ */
+public class CompactBinaryCodec extends BinaryCodec {
+
+  private static final double MAX_QUANTIZED = 1L << 53;
+
+  /** A size read from the input preallocates at most this much; so a corrupt one can't exhaust the heap. */
+  protected static final int MAX_PREALLOCATE = 1024;
+
+  protected final double gridSize;
+  protected final double scale;// 1/gridSize
+
+  //This constructor is mandated by SpatialContextFactory
+  public CompactBinaryCodec(SpatialContext ctx, SpatialContextFactory factory) {
+    super(ctx, factory);
+    this.gridSize = factory.binaryCodecGridSize;
+    if (!(gridSize > 0) || Double.isInfinite(gridSize))
+      throw new IllegalArgumentException("binaryCodecGridSize must be > 0: " + gridSize);
+    double s = 1 / gridSize;
+    if (Math.abs(s - Math.rint(s)) < 1e-6)
+      s = Math.rint(s);// e.g. 1e7 instead of 9999999.999999998; then decoding by division is exact
+    this.scale = s;
+  }
+
+  public double getGridSize() {
+    return gridSize;
+  }
+
+  @Override
+  public Point readPoint(DataInput dataInput) throws IOException {
+    DeltaState state = new DeltaState();
+    readXY(dataInput, state);
+    return ctx.makePoint(state.lastX, state.lastY);
+  }
+
+  @Override
+  public void writePoint(DataOutput dataOutput, Point pt) throws IOException {
+    writeXY(dataOutput, new DeltaState(), pt.getX(), pt.getY());
+  }
+
+  @Override
+  public Rectangle readRect(DataInput dataInput) throws IOException {
+    DeltaState state = new DeltaState();
+    readXY(dataInput, state);
+    final double minX = state.lastX, minY = state.lastY;
+    readXY(dataInput, state);
+    return ctx.makeRectangle(minX, state.lastX, minY, state.lastY);
+  }
+
+  @Override
+  public void writeRect(DataOutput dataOutput, Rectangle r) throws IOException {
+    DeltaState state = new DeltaState();
+    writeXY(dataOutput, state, r.getMinX(), r.getMinY());
+    writeXY(dataOutput, state, r.getMaxX(), r.getMaxY());
+  }
+
+  @Override
+  public Circle readCircle(DataInput dataInput) throws IOException {
+    DeltaState state = new DeltaState();
+    readXY(dataInput, state);
+    state.x = 0;// the radius isn't relative to x
+    final double radius = readValue(dataInput, state, true);
+    return ctx.makeCircle(state.lastX, state.lastY, radius);
+  }
+
+  @Override
+  public void writeCircle(DataOutput dataOutput, Circle c) throws IOException {
+    DeltaState state = new DeltaState();
+    writeXY(dataOutput, state, c.getCenter().getX(), c.getCenter().getY());
+    state.x = 0;// the radius isn't relative to x
+    writeValue(dataOutput, state, c.getRadius(), true);
+  }
+
+  @Override
+  public ShapeCollection readCollection(DataInput dataInput) throws IOException {
+    int size = readVarInt(dataInput);
+    ArrayList<Shape> shapes = new ArrayList<>(Math.min(size, MAX_PREALLOCATE));
+    for (int i = 0; i < size; i++) {
+      shapes.add(readShape(dataInput));
+    }
+    return ctx.makeCollection(shapes);
+  }
+
+  @Override
+  public void writeCollection(DataOutput dataOutput, ShapeCollection col) throws IOException {
+    writeVarInt(dataOutput, col.size());
+    for (int i = 0; i < col.size(); i++) {
+      writeShape(dataOutput, col.get(i));
+    }
+  }
+
+  // --------------------------------------------------------------
+  // Coordinates
+  // --------------------------------------------------------------
+
+  /**
+   * The previous quantized coordinates of the shape being read or written, which the next coordinates are
+   * relative to; and the last coordinates read.  Start with a new one for each shape.
+   */
+  protected static class DeltaState {
+    long x, y;
+    public double lastX, lastY;
+
+    public DeltaState() {
+    }
+  }
+
+  /** Writes x and y, each relative to the previous one in {@code state}, which is then updated. */
+  protected void writeXY(DataOutput dataOutput, DeltaState state, double x, double y) throws IOException {
+    writeValue(dataOutput, state, x, true);
+    writeValue(dataOutput, state, y, false);
+  }
+
+  /** Reads x and y written by {@link #writeXY(DataOutput, DeltaState, double, double)} into {@code state}. */
+  protected void readXY(DataInput dataInput, DeltaState state) throws IOException {
+    state.lastX = readValue(dataInput, state, true);
+    state.lastY = readValue(dataInput, state, false);
+  }
+
+  /**
+   * Writes a varint whose lowest bit is a flag: 0 if the rest is the zig-zag encoded difference of the quantized
+   * value from the previous x (or y), or 1 if a double follows (and the previous becomes 0).
+   */
+  protected void writeValue(DataOutput dataOutput, DeltaState state, double v, boolean isX) throws IOException {
+    final double scaled = v * scale;
+    final long prev = isX ? state.x : state.y;
+    final long q;
+    if (Math.abs(scaled) < MAX_QUANTIZED) {// (false for NaN)
+      q = Math.round(scaled);
+      writeVarLong(dataOutput, zigZagEncode(q - prev) << 1);
+    } else {
+      q = 0;
+      writeVarLong(dataOutput, 1);
+      dataOutput.writeDouble(v);
+    }
+    if (isX)
+      state.x = q;
+    else
+      state.y = q;
+  }
+
+  protected double readValue(DataInput dataInput, DeltaState state, boolean isX) throws IOException {
+    final long tagged = readVarLong(dataInput);
+    final long q;
+    final double v;
+    if ((tagged & 1) == 0) {
+      q = (isX ? state.x : state.y) + zigZagDecode(tagged >>> 1);
+      v = q / scale;
+    } else {
+      q = 0;
+      v = dataInput.readDouble();
+    }
+    if (isX)
+      state.x = q;
+    else
+      state.y = q;
+    return v;
+  }
+
+  // --------------------------------------------------------------
+  // Varints
+  // --------------------------------------------------------------
+
+  protected static long zigZagEncode(long v) {
+    return (v << 1) ^ (v >> 63);
+  }
+
+  protected static long zigZagDecode(long v) {
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  /** Writes 7 bits per byte, least significant first; the high bit is set on all but the last byte. */
+  protected static void writeVarLong(DataOutput dataOutput, long v) throws IOException {
+    while ((v & ~0x7FL) != 0) {
+      dataOutput.writeByte((int) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    dataOutput.writeByte((int) v);
+  }
+
+  protected static long readVarLong(DataInput dataInput) throws IOException {
+    long v = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = dataInput.readByte();
+      v |= (long) (b & 0x7F) << shift;
+      if (b >= 0)
+        return v;
+    }
+    throw new InvalidShapeException("Malformed varint");
+  }
+
+  protected static void writeVarInt(DataOutput dataOutput, int v) throws IOException {
+    if (v < 0)
+      throw new IllegalArgumentException("negative: " + v);
+    writeVarLong(dataOutput, v);
+  }
+
+  protected static int readVarInt(DataInput dataInput) throws IOException {
+    final long v = readVarLong(dataInput);
+    if (v < 0 || v > Integer.MAX_VALUE)
+      throw new InvalidShapeException("Invalid size " + v);
+    return (int) v;
+  }
+}
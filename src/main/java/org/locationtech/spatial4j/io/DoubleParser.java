@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+/**
+ * Parses a double from a range of a CharSequence without creating a String, for the common case of a decimal
+ * number with at most 15 significant digits and a small exponent.  Such a number is a long that's exactly
+ * representable as a double, multiplied or divided by an exactly representable power of ten, so the result is
+ * correctly rounded (Clinger's fast path).  Anything else defers to {@link Double#parseDouble(String)}, so the
+ * result is always the same as that of {@link Double#parseDouble(String)}, and so are the exceptions.
+ */
+final class DoubleParser {
+
+  private static final long MAX_EXACT = 1L << 53;
+  private static final double[] POWERS_OF_TEN = new double[23];// all exactly representable
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++)
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+  }
+
+  private DoubleParser() {
+  }
+
+  /**
+   * Parses {@code text} from {@code start} (inclusive) to {@code end} (exclusive) like
+   * {@code Double.parseDouble(text.subSequence(start, end).toString())}.
+   *
+   * @throws NumberFormatException if it's not a number
+   */
+  static double parseDouble(CharSequence text, int start, int end) {
+    int i = start;
+    boolean negative = false;
+    if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+      negative = text.charAt(i) == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int numDigits = 0;// significant digits in mantissa (leading zeros don't count)
+    int numMantissaChars = 0;
+    int exponent = 0;// base 10
+    boolean fraction = false;
+    for (; i < end; i++) {
+      final char c = text.charAt(i);
+      if (c >= '0' && c <= '9') {
+        numMantissaChars++;
+        if (mantissa == 0 && c == '0') {
+          if (fraction)
+            exponent--;
+          continue;
+        }
+        if (++numDigits > 15)
+          return slowParse(text, start, end);
+        mantissa = mantissa * 10 + (c - '0');
+        if (fraction)
+          exponent--;
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+    if (numMantissaChars == 0)
+      return slowParse(text, start, end);
+    if (i < end) {
+      final char c = text.charAt(i);
+      if (c != 'e' && c != 'E')
+        return slowParse(text, start, end);
+      i++;
+      boolean negativeExp = false;
+      if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+        negativeExp = text.charAt(i) == '-';
+        i++;
+      }
+      if (i == end || end - i > 4)// no exponent digits, or a big exponent
+        return slowParse(text, start, end);
+      int exp = 0;
+      for (; i < end; i++) {
+        final char d = text.charAt(i);
+        if (d < '0' || d > '9')
+          return slowParse(text, start, end);
+        exp = exp * 10 + (d - '0');
+      }
+      exponent += negativeExp ? -exp : exp;
+    }
+    double value;
+    if (mantissa == 0) {
+      value = 0;
+    } else if (mantissa > MAX_EXACT || exponent < -22 || exponent > 22) {
+      return slowParse(text, start, end);
+    } else if (exponent >= 0) {
+      value = mantissa * POWERS_OF_TEN[exponent];
+    } else {
+      value = mantissa / POWERS_OF_TEN[-exponent];
+    }
+    return negative ? -value : value;
+  }
+
+  private static double slowParse(CharSequence text, int start, int end) {
+    return Double.parseDouble(text.subSequence(start, end).toString());
+  }
+}
@@ -17,13 +17,21 @@ import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 import org.noggit.JSONParser;
+import org.noggit.ObjectBuilder;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class GeoJSONReader implements ShapeReader {
 
@@ -67,6 +75,163 @@ public class GeoJSONReader implements ShapeReader {
     return null;
   }
 
+  /**
+   * Reads a GeoJSON FeatureCollection one feature at a time: call {@link FeatureReader#next()} to parse the next
+   * feature's geometry (and the named properties) straight from the stream.  No tree of the document is built, so
+   * the memory needed is that of one feature no matter how many there are.
+   *
+   * @param reader the FeatureCollection; it's closed by {@link FeatureReader#close()}.
+   * @param propertyNames the names of the feature properties to read; the others are skipped.
+   */
+  public FeatureReader readFeatures(Reader reader, String... propertyNames) {
+    return new FeatureReader(new JSONParser(reader), reader, propertyNames);
+  }
+
+  /**
+   * A pull-style reader of the features of a FeatureCollection.  Not threadsafe.
+   * @see #readFeatures(Reader, String...)
+   */
+  public class FeatureReader implements Closeable {
+    private final JSONParser parser;
+    private final Reader reader;
+    private final Set<String> propertyNames;
+    private boolean started, done;
+    private Shape shape;
+    private Map<String, Object> properties = Collections.emptyMap();
+
+    protected FeatureReader(JSONParser parser, Reader reader, String... propertyNames) {
+      this.parser = parser;
+      this.reader = reader;
+      this.propertyNames = new HashSet<>(Arrays.asList(propertyNames));
+    }
+
+    /**
+     * Reads the next feature; then see {@link #getShape()} and {@link #getProperties()}.
+     * @return false if there are no more features.
+     */
+    public boolean next() throws IOException, ParseException {
+      shape = null;
+      properties = Collections.emptyMap();
+      if (done)
+        return false;
+      if (!started) {
+        started = true;
+        if (!seekFeatures()) {
+          done = true;
+          return false;
+        }
+      }
+      int evt = parser.nextEvent();
+      switch (evt) {
+        case JSONParser.OBJECT_START:
+          readFeature();
+          return true;
+        case JSONParser.ARRAY_END:
+          done = true;
+          return false;
+        default:
+          throw new ParseException("Unexpected " + JSONParser.getEventString(evt),
+              (int) parser.getPosition());
+      }
+    }
+
+    /** The geometry of the current feature; null if it's null. */
+    public Shape getShape() {
+      return shape;
+    }
+
+    /**
+     * The named properties that the current feature has, as parsed by noggit's {@link ObjectBuilder}
+     * (e.g. a String, Long, Double, Boolean, Map, List, or null).
+     */
+    public Map<String, Object> getProperties() {
+      return properties;
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+
+    /** Reads up to the start of the "features" array; returns false if there isn't one. */
+    private boolean seekFeatures() throws IOException, ParseException {
+      int evt = parser.nextEvent();
+      if (evt == JSONParser.EOF)
+        return false;
+      if (evt != JSONParser.OBJECT_START)
+        throw new ParseException("Unexpected " + JSONParser.getEventString(evt),
+            (int) parser.getPosition());
+      while (true) {
+        evt = parser.nextEvent();
+        if (evt == JSONParser.OBJECT_END || evt == JSONParser.EOF)
+          return false;
+        String key = parser.getString();
+        evt = parser.nextEvent();
+        if ("features".equals(key) && evt == JSONParser.ARRAY_START)
+          return true;
+        skipValue(parser);
+      }
+    }
+
+    private void readFeature() throws IOException, ParseException {
+      assert (parser.lastEvent() == JSONParser.OBJECT_START);
+      int evt = parser.nextEvent();
+      while (evt != JSONParser.OBJECT_END) {
+        if (evt == JSONParser.EOF)
+          throw new ParseException("Unexpected EOF", (int) parser.getPosition());
+        String key = parser.getString();
+        evt = parser.nextEvent();
+        if ("geometry".equals(key) && evt == JSONParser.OBJECT_START) {
+          shape = readShape(parser); // reads until the geometry's OBJECT_END
+        } else if ("properties".equals(key) && evt == JSONParser.OBJECT_START && !propertyNames.isEmpty()) {
+          readProperties();
+        } else {
+          skipValue(parser);
+        }
+        evt = parser.nextEvent();
+      }
+    }
+
+    private void readProperties() throws IOException {
+      assert (parser.lastEvent() == JSONParser.OBJECT_START);
+      properties = new LinkedHashMap<>();
+      int evt = parser.nextEvent();
+      while (evt != JSONParser.OBJECT_END && evt != JSONParser.EOF) {
+        String key = parser.getString();
+        parser.nextEvent();
+        if (propertyNames.contains(key)) {
+          properties.put(key, ObjectBuilder.getVal(parser));
+        } else {
+          skipValue(parser);
+        }
+        evt = parser.nextEvent();
+      }
+    }
+  }
+
+  /** Skips over the value that begins with the last event, including any nested values. */
+  protected void skipValue(JSONParser parser) throws IOException {
+    int evt = parser.lastEvent();
+    int depth = 0;
+    while (true) {
+      switch (evt) {
+        case JSONParser.OBJECT_START:
+        case JSONParser.ARRAY_START:
+          depth++;
+          break;
+        case JSONParser.OBJECT_END:
+        case JSONParser.ARRAY_END:
+          depth--;
+          break;
+        case JSONParser.EOF:
+          return;
+      }
+      if (depth <= 0)
+        return;
+      evt = parser.nextEvent();
+    }
+  }
+
   // --------------------------------------------------------------
   // Read GeoJSON
   // --------------------------------------------------------------
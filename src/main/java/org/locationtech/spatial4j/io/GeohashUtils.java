@@ -20,8 +20,11 @@
 package org.locationtech.spatial4j.io;
 
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.curve.BitInterleaving;
+import org.locationtech.spatial4j.curve.MortonCurve;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
 
 import java.util.Arrays;
 
@@ -45,6 +48,10 @@ public class GeohashUtils {
   private static final int[] BASE_32_IDX;//sparse array of indexes from '0' to 'z'
 
   public static final int MAX_PRECISION = 24;//DWS: I forget what level results in needless more precision but it's about this
+  /** The maximum precision, in bits, of a geohash encoded as a long; 12 characters. */
+  public static final int MAX_PRECISION_BITS = 60;
+  private static final int AXIS_BITS = MAX_PRECISION_BITS / 2;
+  private static final double AXIS_CELLS = 1L << AXIS_BITS;
   private static final int[] BITS = {16, 8, 4, 2, 1};
 
   static {
@@ -156,6 +163,206 @@ public class GeohashUtils {
     return ctx.makeRectangle(minX, maxX, minY, maxY);
   }
 
+  //
+  // Geohashes as longs. The bits are right-aligned; the most significant bit is the first longitude bit
+  // (as in a geohash string). The precision in bits is thus needed to interpret one.
+  //
+
+  /**
+   * Encodes the given latitude and longitude into a geohash of the given number of bits, like
+   * {@link #encodeLatLon(double, double, int)} does to characters of 5 bits each. The result is the
+   * same. Allocation-free.
+   *
+   * @param precisionBits 1 to {@link #MAX_PRECISION_BITS}
+   */
+  public static long encodeLatLonAsLong(double latitude, double longitude, int precisionBits) {
+    checkPrecisionBits(precisionBits);
+    final long lonIdx = axisCell(longitude, -180, 360);
+    final long latIdx = axisCell(latitude, -90, 180);
+    final long hash = BitInterleaving.interleave(lonIdx, latIdx);
+    return hash >>> (MAX_PRECISION_BITS - precisionBits);
+  }
+
+  /**
+   * The cell index of the value along an axis at {@link #AXIS_BITS}, equivalent to halving the interval
+   * (a value on a boundary goes to the lower cell).
+   */
+  private static long axisCell(double v, double min, double len) {
+    final long maxIdx = (1L << AXIS_BITS) - 1;
+    long idx = (long) Math.ceil((v - min) / len * AXIS_CELLS) - 1;
+    if (idx < 0)
+      return 0;
+    if (idx > maxIdx)
+      return maxIdx;
+    // the subtraction above may round; the cell bounds are exact so compare against them
+    final double cellLen = len / AXIS_CELLS;
+    if (v <= min + idx * cellLen) {
+      if (idx > 0)
+        idx--;
+    } else if (v > min + (idx + 1) * cellLen && idx < maxIdx) {
+      idx++;
+    }
+    return idx;
+  }
+
+  /**
+   * Decodes the given geohash of the given bits into its boundary; see
+   * {@link #decodeBoundary(String, SpatialContext)}.
+   *
+   * @param reuse Optional; if not null it's reset and returned.
+   */
+  public static Rectangle decodeBoundary(long hash, int precisionBits, SpatialContext ctx, Rectangle reuse) {
+    checkPrecisionBits(precisionBits);
+    final long aligned = hash << (MAX_PRECISION_BITS - precisionBits);
+    final int lonBits = (precisionBits + 1) / 2;
+    final int latBits = precisionBits / 2;
+    final long lonIdx = BitInterleaving.compactBits(aligned >>> 1) >>> (AXIS_BITS - lonBits);
+    final long latIdx = BitInterleaving.compactBits(aligned) >>> (AXIS_BITS - latBits);
+    final double lonWidth = 360.0 / (1L << lonBits);
+    final double latHeight = 180.0 / (1L << latBits);
+    final double minX = -180 + lonIdx * lonWidth;
+    final double minY = -90 + latIdx * latHeight;
+    if (reuse == null)
+      return ctx.makeRectangle(minX, minX + lonWidth, minY, minY + latHeight);
+    reuse.reset(minX, minX + lonWidth, minY, minY + latHeight);
+    return reuse;
+  }
+
+  /**
+   * Converts a geohash string to a long of 5 bits per character (so its precision is 5 times the
+   * length).
+   */
+  public static long geohashToLong(CharSequence geohash) {
+    if (geohash.length() * 5 > MAX_PRECISION_BITS)
+      throw new IllegalArgumentException("geohash is too long: " + geohash);
+    long hash = 0;
+    for (int i = 0; i < geohash.length(); i++) {
+      char c = geohash.charAt(i);
+      if (c >= 'A' && c <= 'Z')
+        c -= ('A' - 'a');
+      final int cd = c < BASE_32[0] || c > BASE_32[BASE_32.length - 1] ? -1 : BASE_32_IDX[c - BASE_32[0]];
+      if (cd < 0)
+        throw new IllegalArgumentException("Invalid geohash character '" + c + "' in: " + geohash);
+      hash = (hash << 5) | cd;
+    }
+    return hash;
+  }
+
+  /**
+   * Converts a geohash long to a string.
+   *
+   * @param precisionBits A multiple of 5.
+   */
+  public static String longToGeohash(long hash, int precisionBits) {
+    checkPrecisionBits(precisionBits);
+    if (precisionBits % 5 != 0)
+      throw new IllegalArgumentException("precisionBits must be a multiple of 5: " + precisionBits);
+    final char[] chars = new char[precisionBits / 5];
+    for (int i = chars.length - 1; i >= 0; i--) {
+      chars[i] = BASE_32[(int) (hash & 31)];
+      hash >>>= 5;
+    }
+    return new String(chars);
+  }
+
+  /**
+   * The geohash adjacent to the given one in the given direction, with the same precision. Longitude wraps
+   * across the dateline; there is no neighbor beyond a pole.
+   *
+   * @param dx -1 (west), 0, or 1 (east)
+   * @param dy -1 (south), 0, or 1 (north)
+   * @return the neighbor, or -1 if there is none.
+   */
+  public static long neighbor(long hash, int precisionBits, int dx, int dy) {
+    checkPrecisionBits(precisionBits);
+    final long aligned = hash << (MAX_PRECISION_BITS - precisionBits);
+    final int lonShift = AXIS_BITS - (precisionBits + 1) / 2;
+    final int latShift = AXIS_BITS - precisionBits / 2;
+    final long lonCells = 1L << (AXIS_BITS - lonShift);
+    final long latCells = 1L << (AXIS_BITS - latShift);
+    final long lonIdx = ((BitInterleaving.compactBits(aligned >>> 1) >>> lonShift) + dx + lonCells) & (lonCells - 1);//wraps
+    final long latIdx = (BitInterleaving.compactBits(aligned) >>> latShift) + dy;
+    if (latIdx < 0 || latIdx >= latCells)
+      return -1;
+    final long neighbor = BitInterleaving.interleave(lonIdx << lonShift, latIdx << latShift);
+    return neighbor >>> (MAX_PRECISION_BITS - precisionBits);
+  }
+
+  /**
+   * The 8 geohashes surrounding the given one, in the order N, NE, E, SE, S, SW, W, NW; see
+   * {@link #neighbor(long, int, int, int)}. Entries are -1 beyond a pole.
+   *
+   * @param reuse Optional; if not null (and at least 8 long) it's filled and returned.
+   */
+  public static long[] neighbors(long hash, int precisionBits, long[] reuse) {
+    final long[] result = reuse != null ? reuse : new long[8];
+    for (int i = 0; i < 8; i++) {
+      result[i] = neighbor(hash, precisionBits, NEIGHBOR_DX[i], NEIGHBOR_DY[i]);
+    }
+    return result;
+  }
+
+  private static final int[] NEIGHBOR_DX = {0, 1, 1, 1, 0, -1, -1, -1};
+  private static final int[] NEIGHBOR_DY = {1, 1, 0, -1, -1, -1, 0, 1};
+
+  /**
+   * The 8 geohashes surrounding the given one; see {@link #neighbors(long, int, long[])}. Entries are
+   * null beyond a pole.
+   */
+  public static String[] getNeighbors(String geohash) {
+    final int bits = geohash.length() * 5;
+    final long[] hashes = neighbors(geohashToLong(geohash), bits, null);
+    final String[] result = new String[8];
+    for (int i = 0; i < 8; i++) {
+      if (hashes[i] != -1)
+        result[i] = longToGeohash(hashes[i], bits);
+    }
+    return result;
+  }
+
+  /**
+   * Finds the geohash cells of the given precision that cover the shape, as sorted ranges suitable for
+   * range scans of an index keyed by geohash longs. Geohashes are in the order of a {@link MortonCurve} over
+   * the globe, so this is {@link MortonCurve#ranges(Shape, int)} at half the precision (rounded up; an odd
+   * precision's last latitude bit is then dropped). The covering is complete; if it would take more than
+   * {@code maxCells} cells (of any size) it's coarser. Adjacent ranges are merged.
+   *
+   * @param precisionBits the precision of the geohashes in the ranges; 1 to {@link #MAX_PRECISION_BITS}
+   * @param maxCells the budget of cells of any size describing the covering; at least 1
+   * @return pairs of the first and last (inclusive) geohash of each range, in ascending order.
+   */
+  public static long[] coverRanges(Shape shape, int precisionBits, int maxCells, SpatialContext ctx) {
+    checkPrecisionBits(precisionBits);
+    if (maxCells < 1)
+      throw new IllegalArgumentException("maxCells must be >= 1: " + maxCells);
+    final int order = (precisionBits + 1) / 2;
+    final MortonCurve curve = new MortonCurve(ctx, ctx.makeRectangle(-180, 180, -90, 90), order);
+    final long[] ranges = curve.ranges(shape, maxCells);
+    final int shift = order * 2 - precisionBits;
+    if (shift == 0)
+      return ranges;
+    // Drop the last latitude bit; ranges may now touch or share a cell, so merge them again
+    int numRanges = 0;
+    for (int r = 0; r < ranges.length; r += 2) {
+      final long start = ranges[r] >>> shift;
+      final long end = ranges[r + 1] >>> shift;
+      if (numRanges > 0 && ranges[numRanges * 2 - 1] + 1 >= start) {
+        ranges[numRanges * 2 - 1] = end;
+      } else {
+        ranges[numRanges * 2] = start;
+        ranges[numRanges * 2 + 1] = end;
+        numRanges++;
+      }
+    }
+    return numRanges * 2 == ranges.length ? ranges : Arrays.copyOf(ranges, numRanges * 2);
+  }
+
+  private static void checkPrecisionBits(int precisionBits) {
+    if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS)
+      throw new IllegalArgumentException("precisionBits must be between 1 and " + MAX_PRECISION_BITS
+          + ": " + precisionBits);
+  }
+
   /** Array of geohashes 1 level below the baseGeohash. Sorted. */
   public static String[] getSubGeohashes(String baseGeohash) {
     String[] hashes = new String[BASE_32.length];
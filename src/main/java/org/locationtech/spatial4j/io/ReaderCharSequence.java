@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A CharSequence over a {@link Reader}, for parsing a stream with code written for a CharSequence without
+ * reading all of it into memory.  Only a window of the characters is buffered: it's read ahead as characters
+ * are requested, and the characters before the {@link #release(int) released} index are discarded when more
+ * room is needed.  Indexes are absolute (from the start of the stream).
+ * <p>
+ * It's tailored to a parser that reads forward one character at a time and checks the {@link #length()}
+ * before each: until the end of the stream, the length is the end of the buffered window, which is always at
+ * least two characters beyond the greatest index requested so far.  So it's always greater than the next
+ * index a parser would check.  Thus the length grows; it's the real length once the stream is at its end.
+ * <p>
+ * An IOException from the Reader is thrown as an {@link UncheckedIOException}. Not threadsafe.
+ */
+final class ReaderCharSequence implements CharSequence {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private char[] buf;
+  private int bufStart;// absolute index of buf[0]
+  private int bufEnd;// absolute index (exclusive) of the end of the buffered chars
+  private int released;// absolute index before which chars may be discarded
+  private boolean eof;
+
+  ReaderCharSequence(Reader reader) {
+    this(reader, DEFAULT_BUFFER_SIZE);
+  }
+
+  ReaderCharSequence(Reader reader, int bufferSize) {
+    this.reader = reader;
+    this.buf = new char[Math.max(2, bufferSize)];
+    fill(2);
+  }
+
+  /** Allows the characters before the index to be discarded. */
+  void release(int index) {
+    released = Math.max(released, Math.min(index, bufEnd));
+  }
+
+  /** The size of the buffer; it grows only if the chars from the released index to the requested one don't fit. */
+  int getBufferSize() {
+    return buf.length;
+  }
+
+  @Override
+  public int length() {
+    return bufEnd;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < bufStart)
+      throw new IllegalStateException("index " + index + " was released");
+    if (index + 2 > bufEnd)
+      fill(index + 2);
+    if (index >= bufEnd)
+      throw new IndexOutOfBoundsException("index " + index + " >= length " + bufEnd);
+    return buf[index - bufStart];
+  }
+
+  /** Reads until the buffered chars end at {@code target} or beyond, or the end of the stream. */
+  private void fill(int target) {
+    try {
+      while (bufEnd < target && !eof) {
+        if (bufEnd - bufStart == buf.length) {// full
+          final int discard = released - bufStart;
+          if (discard > 0) {
+            System.arraycopy(buf, discard, buf, 0, buf.length - discard);
+            bufStart = released;
+          } else {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+          }
+        }
+        final int from = bufEnd - bufStart;
+        final int read = reader.read(buf, from, buf.length - from);
+        if (read < 0)
+          eof = true;
+        else
+          bufEnd += read;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < bufStart)
+      throw new IllegalStateException("index " + start + " was released");
+    if (end > bufEnd)
+      fill(end);
+    if (start > end || end > bufEnd)
+      throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + bufEnd);
+    return new String(buf, start - bufStart, end - start);
+  }
+
+  /** The buffered characters (not the whole stream). */
+  @Override
+  public String toString() {
+    return new String(buf, 0, bufEnd - bufStart);
+  }
+}
@@ -20,7 +20,10 @@ import org.locationtech.spatial4j.shape.ShapeFactory;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
 import java.text.ParseException;
+import java.util.function.Consumer;
 
 /**
  * An extensible parser for <a href="http://en.wikipedia.org/wiki/Well-known_text"> Well Known Text
@@ -58,6 +61,7 @@ import java.text.ParseException;
 public class WKTReader implements ShapeReader {
   protected final SpatialContext ctx;
   protected final ShapeFactory shapeFactory;
+  private final boolean parsesStringsOnly;// see parseIfSupported(CharSequence)
 
   // TODO support SRID: "SRID=4326;POINT(1,2)
 
@@ -68,6 +72,23 @@ public class WKTReader implements ShapeReader {
   public WKTReader(SpatialContext ctx, SpatialContextFactory factory) {
     this.ctx = ctx;
     this.shapeFactory = ctx.getShapeFactory();
+    final Class<?> c = getClass();
+    this.parsesStringsOnly =
+        overrides(c, "parseIfSupported", String.class) && !overrides(c, "parseIfSupported", CharSequence.class)
+        || overrides(c, "newState", String.class) && !overrides(c, "newState", CharSequence.class);
+  }
+
+  /** Whether a subclass of WKTReader, up to {@code clazz}, declares the method. */
+  private static boolean overrides(Class<?> clazz, String name, Class<?>... parameterTypes) {
+    for (Class<?> c = clazz; c != WKTReader.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // keep looking
+      }
+    }
+    return false;
   }
 
 
@@ -78,14 +99,31 @@ public class WKTReader implements ShapeReader {
    * @throws ParseException Thrown if there is an error in the Shape definition
    */
   public Shape parse(String wktString) throws ParseException, InvalidShapeException {
-    Shape shape = parseIfSupported(wktString);// sets rawString & offset
+    return parse((CharSequence) wktString);
+  }
+
+  /**
+   * Like {@link #parse(String)} but parses a CharSequence in place, e.g. a {@link StringBuilder} or a
+   * {@link java.nio.CharBuffer}, without copying it into a String (but see {@link #parseIfSupported(CharSequence)}).
+   */
+  public Shape parse(CharSequence wkt) throws ParseException, InvalidShapeException {
+    Shape shape = parseIfSupported(wkt);// sets rawString & offset
     if (shape != null)
       return shape;
-    String shortenedString =
-        (wktString.length() <= 128 ? wktString : wktString.substring(0, 128 - 3) + "...");
+    String shortenedString = (wkt.length() <= 128 ? wkt.toString()
+        : wkt.subSequence(0, 128 - 3).toString() + "...");
     throw new ParseException("Unknown Shape definition [" + shortenedString + "]", 0);
   }
 
+  /**
+   * Like {@link #parse(String)} but parses the characters from {@code offset} to {@code offset + length} of the
+   * array in place, without copying them into a String.  Offsets of a {@link ParseException} are relative to
+   * {@code offset}.
+   */
+  public Shape parse(char[] chars, int offset, int length) throws ParseException, InvalidShapeException {
+    return parse(CharBuffer.wrap(chars, offset, length).slice());
+  }
+
   /**
    * Parses the wktString, returning the defined Shape. If it can't because the shape name is
    * unknown or an empty or blank string was passed, then it returns null. If the WKT starts with a
@@ -97,12 +135,27 @@ public class WKTReader implements ShapeReader {
    * @throws ParseException Thrown if there is an error in the Shape definition
    */
   public Shape parseIfSupported(String wktString) throws ParseException, InvalidShapeException {
-    State state = newState(wktString);
+    return parseIfSupported(newState(wktString));
+  }
+
+  /**
+   * Like {@link #parseIfSupported(String)} but parses a CharSequence in place, without copying it into a
+   * String.  If a subclass overrides {@link #parseIfSupported(String)} or {@link #newState(String)} but not
+   * the CharSequence variant, then the CharSequence is copied into a String and given to it instead, so that
+   * all input is parsed the same way.
+   */
+  public Shape parseIfSupported(CharSequence wkt) throws ParseException, InvalidShapeException {
+    if (wkt instanceof String || parsesStringsOnly)
+      return parseIfSupported(wkt.toString());
+    return parseIfSupported(newState(wkt));
+  }
+
+  private Shape parseIfSupported(State state) throws ParseException, InvalidShapeException {
     state.nextIfWhitespace();// leading
     if (state.eof())
       return null;
     // shape types must start with a letter
-    if (!Character.isLetter(state.rawString.charAt(state.offset)))
+    if (!Character.isLetter(state.text.charAt(state.offset)))
       return null;
     String shapeType = state.nextWord();
     Shape result = null;
@@ -122,6 +175,91 @@ public class WKTReader implements ShapeReader {
     return result;
   }
 
+  /**
+   * Reads WKT incrementally from the Reader, passing each member of a top-level GEOMETRYCOLLECTION, MULTIPOLYGON,
+   * MULTILINESTRING, or MULTIPOINT to the consumer once it's parsed (as a shape of its own: e.g. a polygon of a
+   * MULTIPOLYGON). Any other shape is passed whole, and nothing is passed for EMPTY. Unlike {@link #read(Reader)},
+   * the input isn't read into a String; only a small window of it is buffered, so memory use doesn't depend on
+   * the size of the input.
+   * <p>
+   * The State is not created by {@link #newState(String)}; subclasses' parse methods must not look back before
+   * the offset at which they were called.
+   */
+  public void readMembers(Reader reader, Consumer<Shape> consumer) throws IOException, ParseException {
+    final ReaderCharSequence window = new ReaderCharSequence(reader);
+    final State state = new State(window) {
+      // release the chars before each token as it's read
+      @Override
+      public String nextWord() throws ParseException {
+        window.release(offset);
+        return super.nextWord();
+      }
+
+      @Override
+      public double nextDouble() throws ParseException {
+        window.release(offset);
+        return super.nextDouble();
+      }
+
+      @Override
+      public void nextExpect(char expected) throws ParseException {
+        window.release(offset);
+        super.nextExpect(expected);
+      }
+    };
+    try {
+      state.nextIfWhitespace();// leading
+      if (state.eof())
+        return;
+      String shapeType = state.nextWord();
+      if (isMultiType(shapeType)) {
+        // stream the outer collection; each member is parsed whole
+        if (!state.nextIfEmptyAndSkipZM()) {
+          state.nextExpect('(');
+          do {
+            consumer.accept(parseMember(state, shapeType));
+          } while (state.nextIf(','));
+          state.nextExpect(')');
+        }
+      } else {
+        Shape shape = parseShapeByType(state, shapeType);
+        if (shape == null)
+          throw new ParseException("Unknown Shape definition [" + shapeType + "]", 0);
+        consumer.accept(shape);
+      }
+      if (!state.eof())
+        throw new ParseException("end of shape expected", state.offset);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (IllegalArgumentException e) { // NOTE: JTS Throws IAE for bad WKT
+      throw new InvalidShapeException(e.getMessage(), e);
+    }
+  }
+
+  private static boolean isMultiType(String shapeType) {
+    return shapeType.equalsIgnoreCase("GEOMETRYCOLLECTION") || shapeType.equalsIgnoreCase("MULTIPOLYGON")
+        || shapeType.equalsIgnoreCase("MULTILINESTRING") || shapeType.equalsIgnoreCase("MULTIPOINT");
+  }
+
+  /**
+   * Parses a member of a GEOMETRYCOLLECTION or MULTI* shape as a shape of its own, with the parse method of
+   * the member's type (its name is implied, except in a GEOMETRYCOLLECTION).
+   */
+  private Shape parseMember(State state, String multiType) throws ParseException {
+    if (multiType.equalsIgnoreCase("GEOMETRYCOLLECTION"))
+      return shape(state);
+    if (multiType.equalsIgnoreCase("MULTIPOLYGON"))
+      return parsePolygonShape(state);
+    if (multiType.equalsIgnoreCase("MULTILINESTRING"))
+      return parseLineStringShape(state);
+    // MULTIPOINT; the coordinate can optionally be wrapped in parenthesis
+    if (!state.eof() && state.text.charAt(state.offset) == '(')
+      return parsePointShape(state);
+    OnePointsBuilder onePointsBuilder = new OnePointsBuilder(shapeFactory);
+    point(state, onePointsBuilder);
+    return onePointsBuilder.getPoint();
+  }
+
   /**
    * (internal) Creates a new State with the given String. It's only called by
    * {@link #parseIfSupported(String)}. This is an extension point for subclassing.
@@ -133,6 +271,14 @@ public class WKTReader implements ShapeReader {
     return new State(wktString);
   }
 
+  /**
+   * (internal) Creates a new State over the given CharSequence, which isn't a String. It's only called by
+   * {@link #parseIfSupported(CharSequence)}. This is an extension point for subclassing.
+   */
+  protected State newState(CharSequence wkt) {
+    return new State(wkt);
+  }
+
   /**
    * (internal) Parses the remainder of a shape definition following the shape's name given as
    * {@code shapeType} already consumed via {@link State#nextWord()}. If it's able to parse the
@@ -418,17 +564,30 @@ public class WKTReader implements ShapeReader {
     return polygonBuilder;
   }
 
+  /** Words returned by {@link State#nextWord()} without creating a String, when the case matches. */
+  private static final String[] KNOWN_WORDS = {"POINT", "MULTIPOINT", "ENVELOPE", "LINESTRING", "POLYGON",
+      "GEOMETRYCOLLECTION", "MULTILINESTRING", "MULTIPOLYGON", "BUFFER", "EMPTY", "Z", "M", "ZM"};
+
   /** The parse state. */
   public class State {
-    /** Set in {@link #parseIfSupported(String)}. */
+    /** Set in {@link #parseIfSupported(String)}; null if the WKT isn't a String (use {@link #text}). */
     public String rawString;
-    /** Offset of the next char in {@link #rawString} to be read. */
+    /** The WKT being parsed; it's {@link #rawString} if that's set. */
+    public final CharSequence text;
+    /** Offset of the next char in {@link #text} to be read. */
     public int offset;
     /** Dimensionality specifier (e.g. 'Z', or 'M') following a shape type name. */
     public String dimension;
 
     public State(String rawString) {
       this.rawString = rawString;
+      this.text = rawString;
+    }
+
+    /** Parses a CharSequence in place; {@link #rawString} is null unless it's a String. */
+    public State(CharSequence text) {
+      this.rawString = text instanceof String ? (String) text : null;
+      this.text = text;
     }
 
     public SpatialContext getCtx() {
@@ -448,17 +607,33 @@ public class WKTReader implements ShapeReader {
      */
     public String nextWord() throws ParseException {
       int startOffset = offset;
-      while (offset < rawString.length()
-          && Character.isJavaIdentifierPart(rawString.charAt(offset))) {
+      while (offset < text.length()
+          && Character.isJavaIdentifierPart(text.charAt(offset))) {
         offset++;
       }
       if (startOffset == offset)
         throw new ParseException("Word expected", startOffset);
-      String result = rawString.substring(startOffset, offset);
+      String result = knownWord(startOffset, offset);
+      if (result == null)
+        result = text.subSequence(startOffset, offset).toString();
       nextIfWhitespace();
       return result;
     }
 
+    /** Returns the constant for the text in the range if it's one of {@link #KNOWN_WORDS} (same case), else null. */
+    private String knownWord(int start, int end) {
+      WORDS: for (String word : KNOWN_WORDS) {
+        if (word.length() != end - start)
+          continue;
+        for (int i = 0; i < word.length(); i++) {
+          if (word.charAt(i) != text.charAt(start + i))
+            continue WORDS;
+        }
+        return word;
+      }
+      return null;
+    }
+
     /**
      * Skips over a dimensionality token (e.g. 'Z' or 'M') if found, storing in {@link #dimension},
      * and then looks for EMPTY, consuming that and whitespace.
@@ -472,7 +647,7 @@ public class WKTReader implements ShapeReader {
     public boolean nextIfEmptyAndSkipZM() throws ParseException {
       if (eof())
         return false;
-      char c = rawString.charAt(offset);
+      char c = text.charAt(offset);
       if (c == '(' || !Character.isJavaIdentifierPart(c))
         return false;
       String word = nextWord();
@@ -483,7 +658,7 @@ public class WKTReader implements ShapeReader {
 
       if (eof())
         return false;
-      c = rawString.charAt(offset);
+      c = text.charAt(offset);
       if (c == '(' || !Character.isJavaIdentifierPart(c))
         return false;
       word = nextWord();
@@ -495,7 +670,8 @@ public class WKTReader implements ShapeReader {
 
     /**
      * Reads in a double from the String. Parses digits with an optional decimal, sign, or exponent.
-     * NaN and Infinity are not supported. {@link #offset} is advanced past whitespace.
+     * NaN and Infinity are not supported. {@link #offset} is advanced past whitespace. The number is
+     * parsed in place (see {@link DoubleParser}).
      *
      * @return Double value
      */
@@ -506,7 +682,7 @@ public class WKTReader implements ShapeReader {
         throw new ParseException("Expected a number", offset);
       double result;
       try {
-        result = Double.parseDouble(rawString.substring(startOffset, offset));
+        result = DoubleParser.parseDouble(text, startOffset, offset);
       } catch (Exception e) {
         throw new ParseException(e.toString(), offset);
       }
@@ -517,8 +693,8 @@ public class WKTReader implements ShapeReader {
     /** Advances offset forward until it points to a character that isn't part of a number. */
     public void skipDouble() {
       int startOffset = offset;
-      for (; offset < rawString.length(); offset++) {
-        char c = rawString.charAt(offset);
+      for (; offset < text.length(); offset++) {
+        char c = text.charAt(offset);
         if (!(Character.isDigit(c) || c == '.' || c == '-' || c == '+')) {
           // 'e' is okay as long as it isn't first
           if (offset != startOffset && (c == 'e' || c == 'E'))
@@ -548,7 +724,7 @@ public class WKTReader implements ShapeReader {
     public void nextExpect(char expected) throws ParseException {
       if (eof())
         throw new ParseException("Expected [" + expected + "] found EOF", offset);
-      char c = rawString.charAt(offset);
+      char c = text.charAt(offset);
       if (c != expected)
         throw new ParseException("Expected [" + expected + "] found [" + c + "]", offset);
       offset++;
@@ -557,7 +733,7 @@ public class WKTReader implements ShapeReader {
 
     /** If the string is consumed, i.e. at end-of-file. */
     public final boolean eof() {
-      return offset >= rawString.length();
+      return offset >= text.length();
     }
 
     /**
@@ -568,7 +744,7 @@ public class WKTReader implements ShapeReader {
      * @return true if consumed
      */
     public boolean nextIf(char expected) {
-      if (!eof() && rawString.charAt(offset) == expected) {
+      if (!eof() && text.charAt(offset) == expected) {
         offset++;
         nextIfWhitespace();
         return true;
@@ -582,8 +758,8 @@ public class WKTReader implements ShapeReader {
      * most other parsing methods call it.</em>
      */
     public void nextIfWhitespace() {
-      for (; offset < rawString.length(); offset++) {
-        if (!Character.isWhitespace(rawString.charAt(offset))) {
+      for (; offset < text.length(); offset++) {
+        if (!Character.isWhitespace(text.charAt(offset))) {
           return;
         }
       }
@@ -612,8 +788,8 @@ public class WKTReader implements ShapeReader {
     public String nextSubShapeString() throws ParseException {
       int startOffset = offset;
       int parenStack = 0;// how many parenthesis levels are we in?
-      for (; offset < rawString.length(); offset++) {
-        char c = rawString.charAt(offset);
+      for (; offset < text.length(); offset++) {
+        char c = text.charAt(offset);
         if (c == ',') {
           if (parenStack == 0)
             break;
@@ -627,7 +803,7 @@ public class WKTReader implements ShapeReader {
       }
       if (parenStack != 0)
         throw new ParseException("Unbalanced parenthesis", startOffset);
-      return rawString.substring(startOffset, offset);
+      return text.subSequence(startOffset, offset).toString();
     }
 
   }// class State
@@ -654,13 +830,14 @@ public class WKTReader implements ShapeReader {
 
   @Override
   public Shape read(Object value) throws IOException, ParseException, InvalidShapeException {
-    return parse(value.toString());
+    return value instanceof CharSequence ? parse((CharSequence) value) : parse(value.toString());
   }
 
   @Override
   public Shape readIfSupported(Object value) throws InvalidShapeException {
     try {
-      return parseIfSupported(value.toString());
+      return value instanceof CharSequence ? parseIfSupported((CharSequence) value)
+          : parseIfSupported(value.toString());
     } catch (ParseException e) {
     }
     return null;
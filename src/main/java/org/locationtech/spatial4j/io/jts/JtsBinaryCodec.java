@@ -12,8 +12,21 @@ import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
 import org.locationtech.spatial4j.exception.InvalidShapeException;
 import org.locationtech.spatial4j.io.BinaryCodec;
+import org.locationtech.spatial4j.io.ByteBufferDataInput;
+import org.locationtech.spatial4j.io.ByteBufferDataOutput;
 import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.io.InStream;
 import org.locationtech.jts.io.OutStream;
@@ -25,9 +38,13 @@ import org.locationtech.jts.io.WKBWriter;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
- * Writes shapes in WKB, if it isn't otherwise supported by the superclass.
+ * Writes shapes in WKB, if it isn't otherwise supported by the superclass.  With a {@link ByteBuffer}, the WKB
+ * is read &amp; written here directly on the buffer (big-endian, 2D), not with JTS's stream based
+ * {@link WKBReader} &amp; {@link WKBWriter}.
  */
 public class JtsBinaryCodec extends BinaryCodec {
 
@@ -67,6 +84,8 @@ public class JtsBinaryCodec extends BinaryCodec {
   protected Shape readShapeByTypeIfSupported(final DataInput dataInput, byte type) throws IOException {
     if (type != TYPE_GEOM)
       return super.readShapeByTypeIfSupported(dataInput, type);
+    if (dataInput instanceof ByteBufferDataInput)
+      return readJtsGeom(((ByteBufferDataInput) dataInput).getBuffer());
     return readJtsGeom(dataInput);
   }
 
@@ -74,7 +93,10 @@ public class JtsBinaryCodec extends BinaryCodec {
   protected boolean writeShapeByTypeIfSupported(DataOutput dataOutput, Shape s, byte type) throws IOException {
     if (type != TYPE_GEOM)
       return super.writeShapeByTypeIfSupported(dataOutput, s, type);
-    writeJtsGeom(dataOutput, s);
+    if (dataOutput instanceof ByteBufferDataOutput)
+      writeJtsGeom(((ByteBufferDataOutput) dataOutput).getBuffer(), s);
+    else
+      writeJtsGeom(dataOutput, s);
     return true;
   }
 
@@ -126,4 +148,162 @@ public class JtsBinaryCodec extends BinaryCodec {
       }
     });
   }
+
+  // --------------------------------------------------------------
+  // ByteBuffer
+  // --------------------------------------------------------------
+
+  public Shape readJtsGeom(ByteBuffer buf) {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    //we don't write the leading byte order mark
+    Geometry geom = readWkbGeometry(buf, ctx.getGeometryFactory(), buf.getInt());
+    //false: don't check for dateline-180 cross or multi-polygon overlaps; this won't happen
+    // once it gets written, and we're reading it now
+    return ctx.makeShape(geom, false, false);
+  }
+
+  public void writeJtsGeom(ByteBuffer buf, Shape s) {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    Geometry geom = ctx.getGeometryFrom(s);//might even translate it
+    writeWkbGeometry(buf, geom, false);
+  }
+
+  /** Reads the WKB geometry following its type int (which may have the Z or SRID flags). */
+  protected Geometry readWkbGeometry(ByteBuffer buf, GeometryFactory factory, int typeInt) {
+    final boolean hasZ = (typeInt & 0x80000000) != 0;
+    if ((typeInt & 0x20000000) != 0)
+      buf.getInt();//SRID; ignored like WKBReader does by default
+    final int type = typeInt & 0xFFFF;
+    switch (type) {
+      case WKBConstants.wkbPoint: {
+        Coordinate coord = readWkbCoordinate(buf, factory, hasZ);
+        if (Double.isNaN(coord.x) && Double.isNaN(coord.y))
+          return factory.createPoint();
+        return factory.createPoint(coord);
+      }
+      case WKBConstants.wkbLineString:
+        return factory.createLineString(readWkbCoordinates(buf, factory, hasZ));
+      case WKBConstants.wkbPolygon: {
+        final int numRings = readWkbSize(buf, 4);// each ring has at least its size
+        if (numRings == 0)
+          return factory.createPolygon();
+        LinearRing shell = factory.createLinearRing(readWkbCoordinates(buf, factory, hasZ));
+        LinearRing[] holes = new LinearRing[numRings - 1];
+        for (int i = 0; i < holes.length; i++) {
+          holes[i] = factory.createLinearRing(readWkbCoordinates(buf, factory, hasZ));
+        }
+        return factory.createPolygon(shell, holes);
+      }
+      case WKBConstants.wkbMultiPoint:
+      case WKBConstants.wkbMultiLineString:
+      case WKBConstants.wkbMultiPolygon:
+      case WKBConstants.wkbGeometryCollection: {
+        Geometry[] geoms = new Geometry[readWkbSize(buf, 5)];// each has at least a byte order and type
+        for (int i = 0; i < geoms.length; i++) {
+          if (buf.get() != WKBConstants.wkbXDR)
+            throw new InvalidShapeException("Unsupported WKB byte order");
+          geoms[i] = readWkbGeometry(buf, factory, buf.getInt());
+        }
+        try {
+          switch (type) {
+            case WKBConstants.wkbMultiPoint:
+              return factory.createMultiPoint(GeometryFactory.toPointArray(Arrays.asList(geoms)));
+            case WKBConstants.wkbMultiLineString:
+              return factory.createMultiLineString(GeometryFactory.toLineStringArray(Arrays.asList(geoms)));
+            case WKBConstants.wkbMultiPolygon:
+              return factory.createMultiPolygon(GeometryFactory.toPolygonArray(Arrays.asList(geoms)));
+            default:
+              return factory.createGeometryCollection(geoms);
+          }
+        } catch (ArrayStoreException e) {
+          throw new InvalidShapeException("Unexpected member geometry type", e);
+        }
+      }
+      default:
+        throw new InvalidShapeException("Unknown WKB type " + type);
+    }
+  }
+
+  private Coordinate readWkbCoordinate(ByteBuffer buf, GeometryFactory factory, boolean hasZ) {
+    PrecisionModel pm = factory.getPrecisionModel();
+    Coordinate coord = new Coordinate(pm.makePrecise(buf.getDouble()), pm.makePrecise(buf.getDouble()));
+    if (hasZ)
+      coord.setZ(buf.getDouble());
+    return coord;
+  }
+
+  private Coordinate[] readWkbCoordinates(ByteBuffer buf, GeometryFactory factory, boolean hasZ) {
+    Coordinate[] coords = new Coordinate[readWkbSize(buf, hasZ ? 24 : 16)];
+    for (int i = 0; i < coords.length; i++) {
+      coords[i] = readWkbCoordinate(buf, factory, hasZ);
+    }
+    return coords;
+  }
+
+  /**
+   * Reads a count of elements that are at least {@code minBytes} each, and so can't exceed what remains of the
+   * buffer; a corrupt one must not be allocated.
+   */
+  private static int readWkbSize(ByteBuffer buf, int minBytes) {
+    final int size = buf.getInt();
+    if (size < 0 || size > buf.remaining() / minBytes)
+      throw new InvalidShapeException("Invalid WKB size " + size);
+    return size;
+  }
+
+  /** Writes the geometry like {@link WKBWriter} does (big-endian, 2D); the byte order mark only if nested. */
+  protected void writeWkbGeometry(ByteBuffer buf, Geometry geom, boolean nested) {
+    if (nested)
+      buf.put((byte) WKBConstants.wkbXDR);
+    if (geom instanceof Point) {
+      buf.putInt(WKBConstants.wkbPoint);
+      CoordinateSequence seq = ((Point) geom).getCoordinateSequence();
+      if (seq.size() == 0) {
+        buf.putDouble(Double.NaN);
+        buf.putDouble(Double.NaN);
+      } else {
+        buf.putDouble(seq.getX(0));
+        buf.putDouble(seq.getY(0));
+      }
+    } else if (geom instanceof LineString) {
+      buf.putInt(WKBConstants.wkbLineString);
+      writeWkbCoordinates(buf, ((LineString) geom).getCoordinateSequence());
+    } else if (geom instanceof Polygon) {
+      Polygon poly = (Polygon) geom;
+      buf.putInt(WKBConstants.wkbPolygon);
+      if (poly.isEmpty()) {
+        buf.putInt(0);
+        return;
+      }
+      buf.putInt(1 + poly.getNumInteriorRing());
+      writeWkbCoordinates(buf, poly.getExteriorRing().getCoordinateSequence());
+      for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+        writeWkbCoordinates(buf, poly.getInteriorRingN(i).getCoordinateSequence());
+      }
+    } else if (geom instanceof GeometryCollection) {
+      if (geom instanceof MultiPoint) {
+        buf.putInt(WKBConstants.wkbMultiPoint);
+      } else if (geom instanceof MultiLineString) {
+        buf.putInt(WKBConstants.wkbMultiLineString);
+      } else if (geom instanceof MultiPolygon) {
+        buf.putInt(WKBConstants.wkbMultiPolygon);
+      } else {
+        buf.putInt(WKBConstants.wkbGeometryCollection);
+      }
+      buf.putInt(geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        writeWkbGeometry(buf, geom.getGeometryN(i), true);
+      }
+    } else {
+      throw new IllegalArgumentException("Unsupported geometry " + geom.getGeometryType());
+    }
+  }
+
+  private void writeWkbCoordinates(ByteBuffer buf, CoordinateSequence seq) {
+    buf.putInt(seq.size());
+    for (int i = 0; i < seq.size(); i++) {
+      buf.putDouble(seq.getX(i));
+      buf.putDouble(seq.getY(i));
+    }
+  }
 }
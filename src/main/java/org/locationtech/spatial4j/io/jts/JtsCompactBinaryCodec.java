@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io.jts;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.io.CompactBinaryCodec;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes JTS geometries in the compact format of {@link CompactBinaryCodec} (instead of WKB like
+ * {@link JtsBinaryCodec}), for shapes that aren't otherwise supported by the superclass.  Each vertex is relative
+ * to the one before it in the same geometry, across rings and members.  Only X and Y are written.
+ */
+public class JtsCompactBinaryCodec extends CompactBinaryCodec {
+
+  // geometry types; these happen to match WKB's
+  protected static final byte
+      GEOM_POINT = 1,
+      GEOM_LINESTRING = 2,
+      GEOM_POLYGON = 3,
+      GEOM_MULTIPOINT = 4,
+      GEOM_MULTILINESTRING = 5,
+      GEOM_MULTIPOLYGON = 6,
+      GEOM_COLLECTION = 7,
+      GEOM_LINEARRING = 8;
+
+  public JtsCompactBinaryCodec(JtsSpatialContext ctx, JtsSpatialContextFactory factory) {
+    super(ctx, factory);
+  }
+
+  @Override
+  protected byte typeForShape(Shape s) {
+    byte type = super.typeForShape(s);
+    if (type == 0) {
+      type = TYPE_GEOM;//handles everything
+    }
+    return type;
+  }
+
+  @Override
+  protected Shape readShapeByTypeIfSupported(final DataInput dataInput, byte type) throws IOException {
+    if (type != TYPE_GEOM)
+      return super.readShapeByTypeIfSupported(dataInput, type);
+    return readJtsGeom(dataInput);
+  }
+
+  @Override
+  protected boolean writeShapeByTypeIfSupported(DataOutput dataOutput, Shape s, byte type) throws IOException {
+    if (type != TYPE_GEOM)
+      return super.writeShapeByTypeIfSupported(dataOutput, s, type);
+    writeJtsGeom(dataOutput, s);
+    return true;
+  }
+
+  public Shape readJtsGeom(DataInput dataInput) throws IOException {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    Geometry geom = readGeometry(dataInput, ctx.getGeometryFactory(), new DeltaState());
+    //false: don't check for dateline-180 cross or multi-polygon overlaps; this won't happen
+    // once it gets written, and we're reading it now
+    return ctx.makeShape(geom, false, false);
+  }
+
+  public void writeJtsGeom(DataOutput dataOutput, Shape s) throws IOException {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    Geometry geom = ctx.getGeometryFrom(s);//might even translate it
+    writeGeometry(dataOutput, geom, new DeltaState());
+  }
+
+  protected Geometry readGeometry(DataInput dataInput, GeometryFactory factory, DeltaState state) throws IOException {
+    final byte type = dataInput.readByte();
+    switch (type) {
+      case GEOM_POINT: {
+        Coordinate[] coords = readCoordinates(dataInput, state);
+        return coords.length == 0 ? factory.createPoint((Coordinate) null) : factory.createPoint(coords[0]);
+      }
+      case GEOM_LINESTRING:
+        return factory.createLineString(readCoordinates(dataInput, state));
+      case GEOM_LINEARRING:
+        return factory.createLinearRing(readCoordinates(dataInput, state));
+      case GEOM_POLYGON: {
+        final int numRings = readVarInt(dataInput);
+        if (numRings == 0)
+          return factory.createPolygon();
+        LinearRing shell = factory.createLinearRing(readCoordinates(dataInput, state));
+        List<LinearRing> holes = new ArrayList<>(Math.min(numRings - 1, MAX_PREALLOCATE));
+        for (int i = 1; i < numRings; i++) {
+          holes.add(factory.createLinearRing(readCoordinates(dataInput, state)));
+        }
+        return factory.createPolygon(shell, holes.toArray(new LinearRing[holes.size()]));
+      }
+      case GEOM_MULTIPOINT:
+      case GEOM_MULTILINESTRING:
+      case GEOM_MULTIPOLYGON:
+      case GEOM_COLLECTION: {
+        final int size = readVarInt(dataInput);
+        List<Geometry> geoms = new ArrayList<>(Math.min(size, MAX_PREALLOCATE));
+        for (int i = 0; i < size; i++) {
+          geoms.add(readGeometry(dataInput, factory, state));
+        }
+        switch (type) {
+          case GEOM_MULTIPOINT: return factory.createMultiPoint(copy(geoms, new Point[size]));
+          case GEOM_MULTILINESTRING: return factory.createMultiLineString(copy(geoms, new LineString[size]));
+          case GEOM_MULTIPOLYGON: return factory.createMultiPolygon(copy(geoms, new Polygon[size]));
+          default: return factory.createGeometryCollection(copy(geoms, new Geometry[size]));
+        }
+      }
+      default:
+        throw new InvalidShapeException("Unsupported geometry byte " + type);
+    }
+  }
+
+  private static <T extends Geometry> T[] copy(List<Geometry> geoms, T[] out) {
+    try {
+      return geoms.toArray(out);
+    } catch (ArrayStoreException e) {
+      throw new InvalidShapeException("Unexpected member geometry type", e);
+    }
+  }
+
+  protected void writeGeometry(DataOutput dataOutput, Geometry geom, DeltaState state) throws IOException {
+    if (geom instanceof Point) {
+      dataOutput.writeByte(GEOM_POINT);
+      writeCoordinates(dataOutput, ((Point) geom).getCoordinateSequence(), state);
+    } else if (geom instanceof LinearRing) {
+      dataOutput.writeByte(GEOM_LINEARRING);
+      writeCoordinates(dataOutput, ((LineString) geom).getCoordinateSequence(), state);
+    } else if (geom instanceof LineString) {
+      dataOutput.writeByte(GEOM_LINESTRING);
+      writeCoordinates(dataOutput, ((LineString) geom).getCoordinateSequence(), state);
+    } else if (geom instanceof Polygon) {
+      Polygon poly = (Polygon) geom;
+      dataOutput.writeByte(GEOM_POLYGON);
+      if (poly.isEmpty()) {
+        writeVarInt(dataOutput, 0);
+        return;
+      }
+      writeVarInt(dataOutput, 1 + poly.getNumInteriorRing());
+      writeCoordinates(dataOutput, poly.getExteriorRing().getCoordinateSequence(), state);
+      for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+        writeCoordinates(dataOutput, poly.getInteriorRingN(i).getCoordinateSequence(), state);
+      }
+    } else if (geom instanceof GeometryCollection) {
+      if (geom instanceof MultiPoint) {
+        dataOutput.writeByte(GEOM_MULTIPOINT);
+      } else if (geom instanceof MultiLineString) {
+        dataOutput.writeByte(GEOM_MULTILINESTRING);
+      } else if (geom instanceof MultiPolygon) {
+        dataOutput.writeByte(GEOM_MULTIPOLYGON);
+      } else {
+        dataOutput.writeByte(GEOM_COLLECTION);
+      }
+      writeVarInt(dataOutput, geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        writeGeometry(dataOutput, geom.getGeometryN(i), state);
+      }
+    } else {
+      throw new IllegalArgumentException("Unsupported geometry " + geom.getGeometryType());
+    }
+  }
+
+  protected Coordinate[] readCoordinates(DataInput dataInput, DeltaState state) throws IOException {
+    final int size = readVarInt(dataInput);
+    List<Coordinate> coords = new ArrayList<>(Math.min(size, MAX_PREALLOCATE));
+    for (int i = 0; i < size; i++) {
+      readXY(dataInput, state);
+      coords.add(new Coordinate(state.lastX, state.lastY));
+    }
+    return coords.toArray(new Coordinate[size]);
+  }
+
+  protected void writeCoordinates(DataOutput dataOutput, CoordinateSequence seq, DeltaState state) throws IOException {
+    writeVarInt(dataOutput, seq.size());
+    for (int i = 0; i < seq.size(); i++) {
+      writeXY(dataOutput, state, seq.getX(i), seq.getY(i));
+    }
+  }
+}
@@ -32,8 +32,8 @@ import static org.locationtech.spatial4j.shape.SpatialRelation.INTERSECTS;
  * intersects the provided shape then that is the answer.
  * <p>
  * This implementation is not optimized for a large number of shapes; relate is
- * O(N).  A more sophisticated implementation might do an R-Tree based on
- * bbox'es, for example.
+ * O(N).  For that, see {@link org.locationtech.spatial4j.index.IndexedShapeCollection}
+ * which uses an R-Tree based on bbox'es.
  */
 public class ShapeCollection<S extends Shape> extends AbstractList<S> implements Shape {
 
@@ -155,24 +155,210 @@ public class ShapeCollection<S extends Shape> extends AbstractList<S> implements
   /**
    * Computes whether the shapes are mutually disjoint. This is a utility method
    * offered for use by a subclass implementing {@link #relateContainsShortCircuits()}.
-   * <b>Beware: this is an O(N^2) algorithm.</b>.  Consequently, consider safely
-   * assuming non-disjoint if shapes.size() &gt; 10 or something.  And if all shapes
-   * are a Point then the result of this method doesn't ultimately matter.
+   * It sweeps the shapes' bounding boxes along Y (which doesn't wrap), ordered by
+   * minimum Y.  The bounding boxes whose Y range overlaps the sweep are kept in an
+   * interval tree on X, which finds those whose X range overlaps too; relate() is
+   * only called on those.  That's O((N + K) log N) where K is the number of pairs
+   * of intersecting bounding boxes, instead of O(N^2).  If all shapes are a Point
+   * then the result of this method doesn't ultimately matter.
    */
   protected static boolean computeMutualDisjoint(List<? extends Shape> shapes) {
-    //WARNING: this is an O(n^2) algorithm.
-    //loop through each shape and see if it intersects any shape before it
-    for (int i = 1; i < shapes.size(); i++) {
-      Shape shapeI = shapes.get(i);
-      for (int j = 0; j < i; j++) {
-        Shape shapeJ = shapes.get(j);
-        if (shapeJ.relate(shapeI).intersects())
-          return false;
+    final int size = shapes.size();
+    final Rectangle[] bboxes = new Rectangle[size];
+    Integer[] byMinY = new Integer[size];
+    Integer[] byMaxY = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      bboxes[i] = shapes.get(i).getBoundingBox();
+      byMinY[i] = i;
+      byMaxY[i] = i;
+    }
+    Arrays.sort(byMinY, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(bboxes[o1].getMinY(), bboxes[o2].getMinY());
+      }
+    });
+    Arrays.sort(byMaxY, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Double.compare(bboxes[o1].getMaxY(), bboxes[o2].getMaxY());
+      }
+    });
+    final XIntervalTree active = new XIntervalTree(bboxes);
+    int[] candidates = new int[16];
+    int removeIdx = 0;
+    for (int i : byMinY) {
+      final Rectangle bboxI = bboxes[i];
+      if (bboxI.isEmpty())
+        continue;//(and NaN sorts last)
+      //remove those below all remaining shapes
+      for (; removeIdx < size && bboxes[byMaxY[removeIdx]].getMaxY() < bboxI.getMinY(); removeIdx++) {
+        active.remove(byMaxY[removeIdx]);
+      }
+      candidates = active.findOverlapping(i, candidates);
+      for (int c = 1; c <= candidates[0]; c++) {
+        final int j = candidates[c];
+        if (bboxes[j].relate(bboxI).intersects()) {
+          //relate the lower index to the higher, as the shapes are in the collection
+          if (j < i ? shapes.get(j).relate(shapes.get(i)).intersects()
+              : shapes.get(i).relate(shapes.get(j)).intersects())
+            return false;
+        }
       }
+      active.add(i);
     }
     return true;
   }
 
+  /**
+   * A set of bounding boxes (by index), found by whether their X range overlaps another's.  Used by
+   * {@link #computeMutualDisjoint(List)}.  Each box is turned into up to two X intervals ("pieces"): a box
+   * crossing the dateline is split in two, and one touching the dateline gets a point on the other side of it
+   * (harmless extra candidates if not geo).  The pieces of all the boxes are sorted by min X up front, and a
+   * max-tree over them holds the max X of the pieces of the boxes in the set, or -Infinity.  The pieces
+   * overlapping [minX, maxX] are then those in the prefix with min X &lt;= maxX whose max X &gt;= minX, found by
+   * descending only into the subtrees whose max is &gt;= minX.
+   */
+  private static class XIntervalTree {
+    final double[] pieceMin;
+    final double[] pieceMax;
+    final int[] boxPieces;//box i's pieces are at [i*2, i*2+1]; -1 if none
+    final double[] sortedMin;//by position
+    final int[] sortedOwner;//by position; the box
+    final int[] piecePos;//by piece; the position in sorted order
+    final int leaves;
+    final double[] maxTree;//heap layout; the leaves at [leaves, leaves*2) are by position
+    final boolean[] contains;//by box
+    final int[] seen;//by box; the last box it was found for plus 1, to report each box once
+
+    XIntervalTree(Rectangle[] bboxes) {
+      final int size = bboxes.length;
+      pieceMin = new double[size * 2];
+      pieceMax = new double[size * 2];
+      boxPieces = new int[size * 2];
+      Arrays.fill(boxPieces, -1);
+      int numPieces = 0;
+      for (int i = 0; i < size; i++) {
+        final Rectangle bbox = bboxes[i];
+        if (bbox.isEmpty())
+          continue;
+        if (bbox.getCrossesDateLine()) {
+          numPieces = addPiece(i, 0, numPieces, bbox.getMinX(), 180);
+          numPieces = addPiece(i, 1, numPieces, -180, bbox.getMaxX());
+        } else {
+          numPieces = addPiece(i, 0, numPieces, bbox.getMinX(), bbox.getMaxX());
+          if (bbox.getMinX() <= -180 && bbox.getMaxX() < 180)
+            numPieces = addPiece(i, 1, numPieces, 180, 180);
+          else if (bbox.getMaxX() >= 180 && bbox.getMinX() > -180)
+            numPieces = addPiece(i, 1, numPieces, -180, -180);
+        }
+      }
+      Integer[] order = new Integer[numPieces];
+      for (int p = 0; p < numPieces; p++) {
+        order[p] = p;
+      }
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          return Double.compare(pieceMin[o1], pieceMin[o2]);
+        }
+      });
+      sortedMin = new double[numPieces];
+      sortedOwner = new int[numPieces];
+      piecePos = new int[numPieces];
+      for (int pos = 0; pos < numPieces; pos++) {
+        sortedMin[pos] = pieceMin[order[pos]];
+        piecePos[order[pos]] = pos;
+      }
+      for (int b = 0; b < boxPieces.length; b++) {
+        if (boxPieces[b] >= 0)
+          sortedOwner[piecePos[boxPieces[b]]] = b / 2;
+      }
+      int leaves = 1;
+      while (leaves < numPieces)
+        leaves *= 2;
+      this.leaves = leaves;
+      maxTree = new double[leaves * 2];
+      Arrays.fill(maxTree, Double.NEGATIVE_INFINITY);
+      contains = new boolean[size];
+      seen = new int[size];
+    }
+
+    private int addPiece(int box, int k, int piece, double minX, double maxX) {
+      pieceMin[piece] = minX;
+      pieceMax[piece] = maxX;
+      boxPieces[box * 2 + k] = piece;
+      return piece + 1;
+    }
+
+    void add(int box) {
+      contains[box] = true;
+      update(box);
+    }
+
+    void remove(int box) {
+      if (contains[box]) {
+        contains[box] = false;
+        update(box);
+      }
+    }
+
+    private void update(int box) {
+      for (int k = 0; k < 2; k++) {
+        final int piece = boxPieces[box * 2 + k];
+        if (piece < 0)
+          continue;
+        int node = leaves + piecePos[piece];
+        maxTree[node] = contains[box] ? pieceMax[piece] : Double.NEGATIVE_INFINITY;
+        for (node /= 2; node >= 1; node /= 2) {
+          maxTree[node] = Math.max(maxTree[node * 2], maxTree[node * 2 + 1]);
+        }
+      }
+    }
+
+    /**
+     * Finds the boxes in the set with a piece overlapping a piece of {@code box}.  They're put in
+     * {@code result} after the count at [0]; returns {@code result}, or a larger copy if it didn't fit.
+     */
+    int[] findOverlapping(int box, int[] result) {
+      result[0] = 0;
+      for (int k = 0; k < 2; k++) {
+        final int piece = boxPieces[box * 2 + k];
+        if (piece < 0)
+          continue;
+        //the pieces with min X <= our max X are a prefix in sorted order
+        int end = Arrays.binarySearch(sortedMin, pieceMax[piece]);
+        if (end < 0) {
+          end = -end - 1;
+        } else {
+          while (end < sortedMin.length && sortedMin[end] == pieceMax[piece])
+            end++;
+        }
+        result = find(1, 0, leaves, end, pieceMin[piece], box, result);
+      }
+      return result;
+    }
+
+    /** Adds the owners of the leaves under {@code node} (spanning [from, to)) before {@code end} with max X &gt;= minX. */
+    private int[] find(int node, int from, int to, int end, double minX, int box, int[] result) {
+      if (from >= end || maxTree[node] < minX)
+        return result;
+      if (node >= leaves) {
+        final int owner = sortedOwner[from];
+        if (seen[owner] != box + 1) {
+          seen[owner] = box + 1;
+          if (result[0] + 1 == result.length)
+            result = Arrays.copyOf(result, result.length * 2);
+          result[++result[0]] = owner;
+        }
+        return result;
+      }
+      final int mid = (from + to) >>> 1;
+      result = find(node * 2, from, mid, end, minX, box, result);
+      return find(node * 2 + 1, mid, to, end, minX, box, result);
+    }
+  }
+
   @Override
   public double getArea(SpatialContext ctx) {
     double MAX_AREA = bbox.getArea(ctx);
@@ -9,7 +9,9 @@
 package org.locationtech.spatial4j.shape.impl;
 
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceCalculator;
 import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.SpatialRelation;
@@ -24,6 +26,12 @@ public class GeoCircle extends CircleImpl {
   private GeoCircle inverseCircle;//when distance reaches > 1/2 way around the world, cache the inverse.
   private double horizAxisY;//see getYAxis
 
+  //For contains(x,y) when the DistanceCalculator is an accurate spherical one; see init()
+  private boolean sphereCalc;
+  private double centerLatRAD, centerLonRAD, cosCenterLat;
+  private double maxHaversine;//sin^2(radius/2); the squared chord length of the radius on the unit sphere, / 4
+  private double boxMinX, boxMaxX;//enclosingBox's, unwrapped such that minX <= maxX (maxX might exceed 180)
+
   public GeoCircle(Point p, double radiusDEG, SpatialContext ctx) {
     super(p, radiusDEG, ctx);
     assert ctx.isGeo();
@@ -37,6 +45,21 @@ public class GeoCircle extends CircleImpl {
   }
 
   private void init() {
+    DistanceCalculator distCalc = ctx.getDistCalc();
+    //(LawOfCosines is too inaccurate at small distances to agree with this)
+    sphereCalc = (distCalc instanceof GeodesicSphereDistCalc.Haversine
+        || distCalc instanceof GeodesicSphereDistCalc.Vincenty) && radiusDEG < 180;
+    if (sphereCalc) {
+      centerLatRAD = DistanceUtils.toRadians(getCenter().getY());
+      centerLonRAD = DistanceUtils.toRadians(getCenter().getX());
+      cosCenterLat = Math.cos(centerLatRAD);
+      double hsinRadius = Math.sin(DistanceUtils.toRadians(radiusDEG) * 0.5);
+      maxHaversine = hsinRadius * hsinRadius;
+      boxMinX = enclosingBox.getMinX();
+      double rawWidth = enclosingBox.getMaxX() - boxMinX;
+      boxMaxX = rawWidth < 0 ? boxMinX + (rawWidth + 360) : enclosingBox.getMaxX();//unwrap dateline
+    }
+
     if (radiusDEG > 90) {
       //--spans more than half the globe
       assert enclosingBox.getWidth() == 360;
@@ -73,6 +96,38 @@ public class GeoCircle extends CircleImpl {
     }
   }
 
+  /**
+   * Like the super implementation but cheaper for the haversine &amp; vincenty calculators: the enclosing box
+   * is checked first, then the haversine of the distance ("h") is compared with that of the radius, using
+   * the center's trigonometry computed in advance. Points extremely close to the edge defer to the
+   * calculator so that the result is consistent with it.
+   */
+  @Override
+  public boolean contains(double x, double y) {
+    if (!sphereCalc)
+      return super.contains(x, y);
+    if (y < enclosingBox.getMinY() || y > enclosingBox.getMaxY())
+      return false;
+    //shift to potentially overlap (see RectangleImpl.relate(Point))
+    if (x < boxMinX)
+      x += 360;
+    else if (x > boxMaxX)
+      x -= 360;
+    if (x < boxMinX || x > boxMaxX)
+      return false;
+    // Like DistanceUtils.distHaversineRAD but we stop at "h"
+    final double latRAD = DistanceUtils.toRadians(y);
+    final double hsinX = Math.sin((centerLonRAD - DistanceUtils.toRadians(x)) * 0.5);
+    final double hsinY = Math.sin((centerLatRAD - latRAD) * 0.5);
+    final double h = hsinY * hsinY + (cosCenterLat * Math.cos(latRAD) * hsinX * hsinX);
+    final double edge = maxHaversine * 1e-10;
+    if (h < maxHaversine - edge)
+      return true;
+    if (h > maxHaversine + edge)
+      return false;
+    return super.contains(x, y);
+  }
+
   @Override
   protected double getYAxis() {
     return horizAxisY;
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.impl;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.BaseShape;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A compact, growable store of many points in primitive arrays: an x column and a y column, of doubles or
+ * (to halve the memory again) floats.  There's no object per point; {@link #getPoint(int)} returns a
+ * lightweight {@link PointView} on demand, and there are bulk operations against a query shape.
+ * <p>
+ * Not threadsafe for modification; reading concurrently is fine.
+ */
+public class PointStore {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final SpatialContext ctx;
+  private final boolean floats;
+  private double[] xDoubles, yDoubles;// null if floats
+  private float[] xFloats, yFloats;// null if not floats
+  private int size;
+
+  /** A store of double precision coordinates. */
+  public PointStore(SpatialContext ctx) {
+    this(ctx, DEFAULT_CAPACITY, false);
+  }
+
+  /**
+   * @param floats whether to store the coordinates as floats instead of doubles, thus losing precision (about
+   *               seven significant digits; for degrees that's around a meter).
+   */
+  public PointStore(SpatialContext ctx, int initialCapacity, boolean floats) {
+    if (initialCapacity < 0)
+      throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+    this.ctx = ctx;
+    this.floats = floats;
+    if (floats) {
+      xFloats = new float[initialCapacity];
+      yFloats = new float[initialCapacity];
+    } else {
+      xDoubles = new double[initialCapacity];
+      yDoubles = new double[initialCapacity];
+    }
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  public boolean isFloats() {
+    return floats;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Adds a point, verifying it like {@link SpatialContext#makePoint(double, double)}. Returns its index. */
+  public int add(double x, double y) {
+    ctx.getShapeFactory().verifyX(x);
+    ctx.getShapeFactory().verifyY(y);
+    ensureCapacity(size + 1);
+    set(size, x, y);
+    return size++;
+  }
+
+  public int add(Point point) {
+    return add(point.getX(), point.getY());
+  }
+
+  /** Replaces the coordinates of the point at the index, without verification. */
+  public void set(int index, double x, double y) {
+    if (floats) {
+      xFloats[index] = (float) x;
+      yFloats[index] = (float) y;
+    } else {
+      xDoubles[index] = x;
+      yDoubles[index] = y;
+    }
+  }
+
+  public void ensureCapacity(int capacity) {
+    final int length = floats ? xFloats.length : xDoubles.length;
+    if (capacity <= length)
+      return;
+    final int newLength = Math.max(capacity, length + (length >> 1));// grow by 1.5
+    if (floats) {
+      xFloats = Arrays.copyOf(xFloats, newLength);
+      yFloats = Arrays.copyOf(yFloats, newLength);
+    } else {
+      xDoubles = Arrays.copyOf(xDoubles, newLength);
+      yDoubles = Arrays.copyOf(yDoubles, newLength);
+    }
+  }
+
+  /** Trims the arrays to the size, to release unused memory once all points have been added. */
+  public void trimToSize() {
+    if (floats) {
+      xFloats = Arrays.copyOf(xFloats, size);
+      yFloats = Arrays.copyOf(yFloats, size);
+    } else {
+      xDoubles = Arrays.copyOf(xDoubles, size);
+      yDoubles = Arrays.copyOf(yDoubles, size);
+    }
+  }
+
+  public double getX(int index) {
+    checkIndex(index);
+    return floats ? xFloats[index] : xDoubles[index];
+  }
+
+  public double getY(int index) {
+    checkIndex(index);
+    return floats ? yFloats[index] : yDoubles[index];
+  }
+
+  private void checkIndex(int index) {
+    if (index >= size)// (negative indexes fail on the array)
+      throw new IndexOutOfBoundsException("index " + index + " >= size " + size);
+  }
+
+  /** A new view of the point at the index.  It reads (and {@link Point#reset(double, double)} writes) the store. */
+  public PointView getPoint(int index) {
+    checkIndex(index);
+    return new PointView(index);
+  }
+
+  /**
+   * Sets the bit of {@code out} for each point that intersects the shape (i.e. the relation isn't DISJOINT);
+   * it doesn't clear any.  The points outside the shape's bounding box are excluded without relating them; the
+   * others are related through one reused {@link PointView}, except for rectangles and circles that don't need it.
+   */
+  public void relate(Shape shape, BitSet out) {
+    if (shape.isEmpty())
+      return;
+    final boolean geo = ctx.isGeo();
+    final Rectangle bbox = shape.getBoundingBox();
+    final double minX = bbox.getMinX(), maxX = bbox.getMaxX(), minY = bbox.getMinY(), maxY = bbox.getMaxY();
+    final boolean isBBox = shape instanceof Rectangle;
+    final CircleImpl circle = shape instanceof CircleImpl ? (CircleImpl) shape : null;
+    final PointView view = new PointView(0);
+    for (int i = 0; i < size; i++) {
+      final double x = floats ? xFloats[i] : xDoubles[i];
+      final double y = floats ? yFloats[i] : yDoubles[i];
+      if (RectangleImpl.relate(geo, minX, maxX, minY, maxY, x, y) == RectangleImpl.RELATE_DISJOINT)
+        continue;
+      final boolean intersects;
+      if (isBBox) {
+        intersects = true;
+      } else if (circle != null) {
+        intersects = circle.contains(x, y);
+      } else {
+        view.index = i;
+        intersects = shape.relate(view) != SpatialRelation.DISJOINT;
+      }
+      if (intersects)
+        out.set(i);
+    }
+  }
+
+  /**
+   * Sets {@code out[i]} to the distance from {@code from} to point {@code i}, for each point, per the context's
+   * {@link org.locationtech.spatial4j.distance.DistanceCalculator}.
+   * @param out at least {@link #size()} long
+   */
+  public void distances(Point from, double[] out) {
+    if (out.length < size)
+      throw new IllegalArgumentException("out is shorter than size " + size);
+    if (!floats) {
+      ctx.getDistCalc().distances(from, xDoubles, yDoubles, 0, size, out);
+      return;
+    }
+    for (int i = 0; i < size; i++) {
+      out[i] = ctx.getDistCalc().distance(from, xFloats[i], yFloats[i]);
+    }
+  }
+
+  /** Sets the bit of {@code out} for each point within {@code distance} of {@code from}; like a circle. */
+  public void within(Point from, double distance, BitSet out) {
+    relate(ctx.getShapeFactory().circle(from, distance), out);
+  }
+
+  /**
+   * A {@link Point} that's the point at an index of the store; it has no coordinates of its own.
+   */
+  public class PointView extends BaseShape<SpatialContext> implements Point {
+
+    private int index;
+
+    private PointView(int index) {
+      super(PointStore.this.ctx);
+      this.index = index;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    /** Makes this a view of a different point, to visit many without creating views. */
+    public void setIndex(int index) {
+      checkIndex(index);
+      this.index = index;
+    }
+
+    @Override
+    public void reset(double x, double y) {
+      set(index, x, y);
+    }
+
+    @Override
+    public double getX() {
+      return floats ? xFloats[index] : xDoubles[index];
+    }
+
+    @Override
+    public double getY() {
+      return floats ? yFloats[index] : yDoubles[index];
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return Double.isNaN(getX());
+    }
+
+    @Override
+    public Rectangle getBoundingBox() {
+      return ctx.makeRectangle(getX(), getX(), getY(), getY());
+    }
+
+    @Override
+    public Point getCenter() {
+      return this;
+    }
+
+    @Override
+    public Circle getBuffered(double distance, SpatialContext ctx) {
+      return ctx.makeCircle(this, distance);
+    }
+
+    @Override
+    public SpatialRelation relate(Shape other) {
+      if (isEmpty() || other.isEmpty())
+        return SpatialRelation.DISJOINT;
+      if (other instanceof Point)
+        return this.equals(other) ? SpatialRelation.INTERSECTS : SpatialRelation.DISJOINT;
+      return other.relate(this).transpose();
+    }
+
+    @Override
+    public boolean hasArea() {
+      return false;
+    }
+
+    @Override
+    public double getArea(SpatialContext ctx) {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "Pt(x=" + getX() + ",y=" + getY() + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return PointImpl.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+      return PointImpl.hashCode(this);
+    }
+  }
+}
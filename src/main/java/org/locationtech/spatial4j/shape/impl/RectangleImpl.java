@@ -166,104 +166,171 @@ public class RectangleImpl extends BaseShape<SpatialContext> implements Rectangl
   }
 
   public SpatialRelation relate(Point point) {
-    if (point.getY() > getMaxY() || point.getY() < getMinY())
+    return toRelation(relate(ctx.isGeo(), minX, maxX, minY, maxY, point.getX(), point.getY()));
+  }
+
+  /**
+   * Relates via {@link #relateYRange(double, double)} and {@link #relateXRange(double, double)}, so a subclass
+   * overriding those (or the getters) affects this too.  For bounds that are primitives, the static
+   * {@link #relate(boolean, double, double, double, double, double, double, double, double)} is faster.
+   */
+  public SpatialRelation relate(Rectangle rect) {
+    SpatialRelation yIntersect = relateYRange(rect.getMinY(), rect.getMaxY());
+    if (yIntersect == SpatialRelation.DISJOINT)
+      return SpatialRelation.DISJOINT;
+
+    SpatialRelation xIntersect = relateXRange(rect.getMinX(), rect.getMaxX());
+    if (xIntersect == SpatialRelation.DISJOINT)
       return SpatialRelation.DISJOINT;
+
+    if (xIntersect == yIntersect)//in agreement
+      return xIntersect;
+
+    //if one side is equal, return the other
+    if (getMinY() == rect.getMinY() && getMaxY() == rect.getMaxY())
+      return xIntersect;
+    if (getMinX() == rect.getMinX() && getMaxX() == rect.getMaxX()
+            || (ctx.isGeo() && verticalAtDateline(getMinX(), getMaxX(), rect.getMinX(), rect.getMaxX()))) {
+      return yIntersect;
+    }
+
+    return SpatialRelation.INTERSECTS;
+  }
+
+  @Override
+  public SpatialRelation relateYRange(double ext_minY, double ext_maxY) {
+    return toRelation(relateRange(minY, maxY, ext_minY, ext_maxY));
+  }
+
+  @Override
+  public SpatialRelation relateXRange(double ext_minX, double ext_maxX) {
+    return toRelation(relateXRange(ctx.isGeo(), minX, maxX, ext_minX, ext_maxX));
+  }
+
+  //
+  // Static primitive relate methods, for bounding boxes in flat arrays or local variables. They return one of the
+  //   int codes below instead of a SpatialRelation.
+  //
+
+  /** A relation code; it's the ordinal of {@link SpatialRelation#WITHIN}. */
+  public static final int RELATE_WITHIN = 0;
+  /** A relation code; it's the ordinal of {@link SpatialRelation#CONTAINS}. */
+  public static final int RELATE_CONTAINS = 1;
+  /** A relation code; it's the ordinal of {@link SpatialRelation#DISJOINT}. */
+  public static final int RELATE_DISJOINT = 2;
+  /** A relation code; it's the ordinal of {@link SpatialRelation#INTERSECTS}. */
+  public static final int RELATE_INTERSECTS = 3;
+
+  private static final SpatialRelation[] RELATIONS = SpatialRelation.values();
+
+  /** The SpatialRelation of a relation code returned by the static relate methods. */
+  public static SpatialRelation toRelation(int code) {
+    return RELATIONS[code];
+  }
+
+  /**
+   * Relates the rectangle {@code minX, maxX, minY, maxY} to the point {@code x, y}, like
+   * {@link #relate(Point)}: {@link #RELATE_CONTAINS} or {@link #RELATE_DISJOINT}.
+   * @param geo if the coordinates are degrees on the globe; the rectangle crosses the dateline if minX &gt; maxX.
+   */
+  public static int relate(boolean geo, double minX, double maxX, double minY, double maxY, double x, double y) {
+    if (y > maxY || y < minY)
+      return RELATE_DISJOINT;
     //  all the below logic is rather unfortunate but some dateline cases demand it
-    double minX = this.minX;
-    double maxX = this.maxX;
-    double pX = point.getX();
-    if (ctx.isGeo()) {
+    if (geo) {
       //unwrap dateline and normalize +180 to become -180
       double rawWidth = maxX - minX;
       if (rawWidth < 0) {
         maxX = minX + (rawWidth + 360);
       }
       //shift to potentially overlap
-      if (pX < minX) {
-        pX += 360;
-      } else if (pX > maxX) {
-        pX -= 360;
+      if (x < minX) {
+        x += 360;
+      } else if (x > maxX) {
+        x -= 360;
       } else {
-        return SpatialRelation.CONTAINS;//short-circuit
+        return RELATE_CONTAINS;//short-circuit
       }
     }
-    if (pX < minX || pX > maxX)
-      return SpatialRelation.DISJOINT;
-    return SpatialRelation.CONTAINS;
+    if (x < minX || x > maxX)
+      return RELATE_DISJOINT;
+    return RELATE_CONTAINS;
   }
 
-  public SpatialRelation relate(Rectangle rect) {
-    SpatialRelation yIntersect = relateYRange(rect.getMinY(), rect.getMaxY());
-    if (yIntersect == SpatialRelation.DISJOINT)
-      return SpatialRelation.DISJOINT;
+  /**
+   * Relates the rectangle {@code minX, maxX, minY, maxY} to the rectangle {@code ext_minX, ext_maxX, ext_minY,
+   * ext_maxY}, like {@link #relate(Rectangle)}.
+   * @param geo if the coordinates are degrees on the globe; a rectangle crosses the dateline if minX &gt; maxX.
+   */
+  public static int relate(boolean geo, double minX, double maxX, double minY, double maxY,
+                           double ext_minX, double ext_maxX, double ext_minY, double ext_maxY) {
+    final int yIntersect = relateRange(minY, maxY, ext_minY, ext_maxY);
+    if (yIntersect == RELATE_DISJOINT)
+      return RELATE_DISJOINT;
 
-    SpatialRelation xIntersect = relateXRange(rect.getMinX(), rect.getMaxX());
-    if (xIntersect == SpatialRelation.DISJOINT)
-      return SpatialRelation.DISJOINT;
+    final int xIntersect = relateXRange(geo, minX, maxX, ext_minX, ext_maxX);
+    if (xIntersect == RELATE_DISJOINT)
+      return RELATE_DISJOINT;
 
     if (xIntersect == yIntersect)//in agreement
       return xIntersect;
 
     //if one side is equal, return the other
-    if (getMinY() == rect.getMinY() && getMaxY() == rect.getMaxY())
+    if (minY == ext_minY && maxY == ext_maxY)
       return xIntersect;
-    if (getMinX() == rect.getMinX() && getMaxX() == rect.getMaxX()
-            || (ctx.isGeo() && verticalAtDateline(this, rect))) {
+    if (minX == ext_minX && maxX == ext_maxX
+            || (geo && verticalAtDateline(minX, maxX, ext_minX, ext_maxX))) {
       return yIntersect;
     }
 
-    return SpatialRelation.INTERSECTS;
+    return RELATE_INTERSECTS;
   }
 
   //note: if vertical lines at the dateline were normalized (say to -180.0) then this method wouldn't be necessary.
-  private static boolean verticalAtDateline(RectangleImpl rect1, Rectangle rect2) {
-    if (rect1.getMinX() == rect1.getMaxX() && rect2.getMinX() == rect2.getMaxX()) {
-      if (rect1.getMinX() == -180) {
-        return rect2.getMinX() == +180;
-      } else if (rect1.getMinX() == +180) {
-        return rect2.getMinX() == -180;
+  private static boolean verticalAtDateline(double minX1, double maxX1, double minX2, double maxX2) {
+    if (minX1 == maxX1 && minX2 == maxX2) {
+      if (minX1 == -180) {
+        return minX2 == +180;
+      } else if (minX1 == +180) {
+        return minX2 == -180;
       }
     }
     return false;
   }
 
-  //TODO might this utility move to SpatialRelation ?
-  private static SpatialRelation relate_range(double int_min, double int_max, double ext_min, double ext_max) {
+  /** Relates the range {@code int_min, int_max} to {@code ext_min, ext_max}, with no wrapping. */
+  public static int relateRange(double int_min, double int_max, double ext_min, double ext_max) {
     if (ext_min > int_max || ext_max < int_min) {
-      return SpatialRelation.DISJOINT;
+      return RELATE_DISJOINT;
     }
 
     if (ext_min >= int_min && ext_max <= int_max) {
-      return SpatialRelation.CONTAINS;
+      return RELATE_CONTAINS;
     }
 
     if (ext_min <= int_min && ext_max >= int_max) {
-      return SpatialRelation.WITHIN;
+      return RELATE_WITHIN;
     }
-    return SpatialRelation.INTERSECTS;
+    return RELATE_INTERSECTS;
   }
 
-  @Override
-  public SpatialRelation relateYRange(double ext_minY, double ext_maxY) {
-    return relate_range(minY, maxY, ext_minY, ext_maxY);
-  }
-
-  @Override
-  public SpatialRelation relateXRange(double ext_minX, double ext_maxX) {
+  /**
+   * Relates the X range {@code minX, maxX} to {@code ext_minX, ext_maxX}, like {@link #relateXRange(double, double)}.
+   * @param geo if the coordinates are degrees on the globe; a range crosses the dateline if min &gt; max.
+   */
+  public static int relateXRange(boolean geo, double minX, double maxX, double ext_minX, double ext_maxX) {
     //For ext & this we have local minX and maxX variable pairs. We rotate them so that minX <= maxX
-    double minX = this.minX;
-    double maxX = this.maxX;
-    if (ctx.isGeo()) {
+    if (geo) {
       //unwrap dateline, plus do world-wrap short circuit
       double rawWidth = maxX - minX;
       if (rawWidth == 360)
-        return SpatialRelation.CONTAINS;
+        return RELATE_CONTAINS;
       if (rawWidth < 0) {
         maxX = minX + (rawWidth + 360);
       }
       double ext_rawWidth = ext_maxX - ext_minX;
       if (ext_rawWidth == 360)
-        return SpatialRelation.WITHIN;
+        return RELATE_WITHIN;
       if (ext_rawWidth < 0) {
         ext_maxX = ext_minX + (ext_rawWidth + 360);
       }
@@ -277,7 +344,7 @@ public class RectangleImpl extends BaseShape<SpatialContext> implements Rectangl
       }
     }
 
-    return relate_range(minX, maxX, ext_minX, ext_maxX);
+    return relateRange(minX, maxX, ext_minX, ext_maxX);
   }
 
   @Override
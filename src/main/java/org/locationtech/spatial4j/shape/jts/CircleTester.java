@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.jts;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.CartesianDistCalc;
+import org.locationtech.spatial4j.distance.DistanceCalculator;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.CircleImpl;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+/**
+ * Tests the points, segments, and bounding boxes of lines against a circle, for {@link JtsGeometry#relate(Circle)}
+ * and {@link SegmentIndex}.  Like JTS (and the geometry's bounding box), a segment is a straight line in x-y
+ * (i.e. longitude-latitude).  When the context is not geo, distances are Cartesian.  When it's geo, they're
+ * geodesic per the context's {@link DistanceCalculator}; the closest point of a segment to the center is found by
+ * a search along it, but only for the few segments that the cheap bounding box test doesn't rule out.
+ */
+abstract class CircleTester {
+
+  final Circle circle;
+
+  CircleTester(Circle circle) {
+    this.circle = circle;
+  }
+
+  static CircleTester create(SpatialContext ctx, Circle circle) {
+    return ctx.isGeo() ? new Geo(ctx, circle) : new Cartesian(circle);
+  }
+
+  /** Whether the box is disjoint from the circle's bounding box; thus any point or segment in it is outside. */
+  abstract boolean boxDisjoint(double minX, double minY, double maxX, double maxY);
+
+  /**
+   * Whether the box isn't within the circle's bounding box on some side.  If the box is the bounding box of some
+   * points, then some of them are outside the circle.
+   */
+  abstract boolean boxExceeds(double minX, double minY, double maxX, double maxY);
+
+  /** Whether all of the box is in the circle; it's okay to return false when it's expensive to know. */
+  abstract boolean boxWithin(double minX, double minY, double maxX, double maxY);
+
+  abstract boolean pointOutside(double x, double y);
+
+  /** Whether some point of the segment is in the circle. Its end points are known to be outside of it. */
+  abstract boolean segmentIntersects(double x1, double y1, double x2, double y2);
+
+  /** Cartesian math, which is what JTS uses. */
+  static final class Cartesian extends CircleTester {
+    private final CartesianDistCalc calcSqd = CartesianDistCalc.INSTANCE_SQUARED;
+    private final Point center;
+    private final double radiusSquared;
+    private final double minX, minY, maxX, maxY;
+
+    Cartesian(Circle circle) {
+      super(circle);
+      this.center = circle.getCenter();
+      final double r = circle.getRadius();
+      this.radiusSquared = r * r;
+      this.minX = center.getX() - r;
+      this.maxX = center.getX() + r;
+      this.minY = center.getY() - r;
+      this.maxY = center.getY() + r;
+    }
+
+    @Override
+    boolean boxDisjoint(double minX, double minY, double maxX, double maxY) {
+      return minX > this.maxX || maxX < this.minX || minY > this.maxY || maxY < this.minY;
+    }
+
+    @Override
+    boolean boxExceeds(double minX, double minY, double maxX, double maxY) {
+      return minX < this.minX || maxX > this.maxX || minY < this.minY || maxY > this.maxY;
+    }
+
+    @Override
+    boolean boxWithin(double minX, double minY, double maxX, double maxY) {
+      // the circle is convex, so the corners suffice
+      return !pointOutside(minX, minY) && !pointOutside(minX, maxY)
+          && !pointOutside(maxX, minY) && !pointOutside(maxX, maxY);
+    }
+
+    @Override
+    boolean pointOutside(double x, double y) {
+      return calcSqd.distance(center, x, y) > radiusSquared;
+    }
+
+    @Override
+    boolean segmentIntersects(double x1, double y1, double x2, double y2) {
+      return calcSqd.distanceToLineSegment(center, x1, y1, x2, y2) <= radiusSquared;
+    }
+  }
+
+  /** Geodesic math on the sphere, per the context's DistanceCalculator. */
+  static final class Geo extends CircleTester {
+    /** A segment is sampled at the ends of this many pieces, to find those that may have the closest point. */
+    private static final int PIECES = 8;
+    /** The closest point is searched for no more precisely than this fraction of the radius. */
+    private static final double MIN_LENGTH_FRACTION = 1e-9;
+    /** The most distance calculations per segment, including the samples. */
+    private static final int MAX_EVALUATIONS = 128;
+    private static final double INV_PHI = (Math.sqrt(5) - 1) / 2;
+
+    private final SpatialContext ctx;
+    private final DistanceCalculator calc;
+    private final CircleImpl circleImpl;// null if the circle isn't one
+    private final Point center;
+    private final double radius;
+    private final double minLength;// search tolerance, relative to the radius
+    private final double minY, maxY;
+    private final double minX, maxX;// minX > maxX if the bounding box crosses the dateline
+
+    Geo(SpatialContext ctx, Circle circle) {
+      super(circle);
+      this.ctx = ctx;
+      this.calc = ctx.getDistCalc();
+      this.circleImpl = circle instanceof CircleImpl ? (CircleImpl) circle : null;
+      this.center = circle.getCenter();
+      this.radius = circle.getRadius();
+      this.minLength = radius * MIN_LENGTH_FRACTION;
+      final Rectangle bbox = circle.getBoundingBox();
+      this.minY = bbox.getMinY();
+      this.maxY = bbox.getMaxY();
+      this.minX = bbox.getMinX();
+      this.maxX = bbox.getMaxX();
+    }
+
+    private boolean lonDisjoint(double minX, double maxX) {
+      return RectangleImpl.relateXRange(true, this.minX, this.maxX, minX, maxX) == RectangleImpl.RELATE_DISJOINT;
+    }
+
+    private boolean lonContains(double x) {
+      return !lonDisjoint(x, x);
+    }
+
+    @Override
+    boolean boxDisjoint(double minX, double minY, double maxX, double maxY) {
+      return minY > this.maxY || maxY < this.minY || lonDisjoint(minX, maxX);
+    }
+
+    @Override
+    boolean boxExceeds(double minX, double minY, double maxX, double maxY) {
+      return minY < this.minY || maxY > this.maxY || !lonContains(minX) || !lonContains(maxX);
+    }
+
+    @Override
+    boolean boxWithin(double minX, double minY, double maxX, double maxY) {
+      // A geodesic circle isn't convex in lon-lat, so corners don't suffice. Only relate a (new) rectangle when
+      //  it's plausible.
+      if (boxExceeds(minX, minY, maxX, maxY) || maxX - minX >= 360)
+        return false;
+      return circle.relate(ctx.makeRectangle(minX, maxX, minY, maxY)) == SpatialRelation.CONTAINS;
+    }
+
+    @Override
+    boolean pointOutside(double x, double y) {
+      if (circleImpl != null)
+        return !circleImpl.contains(x, y);
+      return !calc.within(center, x, y, radius);
+    }
+
+    /**
+     * Samples the segment at the ends of {@link #PIECES} pieces, then searches the pieces whose lower bound on
+     * the distance is within the radius, nearest first, with a golden-section search for the closest point.
+     * The search stops once the point is known within {@link #MIN_LENGTH_FRACTION} of the radius, so a segment
+     * tangent to the circle within that tolerance may be considered disjoint. Costs at most
+     * {@link #MAX_EVALUATIONS} + 2 distance calculations.
+     */
+    @Override
+    boolean segmentIntersects(double x1, double y1, double x2, double y2) {
+      if (boxDisjoint(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)))
+        return false;
+      // An upper bound on the geodesic length of the segment: the latitude delta and the longitude delta at the
+      //  latitude closest to the equator.
+      final double dX = Math.abs(x2 - x1), dY = Math.abs(y2 - y1);
+      final double cosLat = (y1 < 0) != (y2 < 0) ? 1
+          : Math.cos(DistanceUtils.toRadians(Math.min(Math.abs(y1), Math.abs(y2))));
+      final double length = Math.sqrt(dY * dY + dX * cosLat * dX * cosLat) * (1 + 1e-12);
+      final double d1 = calc.distance(center, x1, y1), d2 = calc.distance(center, x2, y2);
+      // The distance to the center changes no faster than along the segment, so no point of it (or of a piece
+      //  of it, likewise) is closer than (d1 + d2 - length) / 2.
+      if ((d1 + d2 - length) * 0.5 > radius)
+        return false;
+      final double[] d = new double[PIECES + 1];
+      d[0] = d1;
+      d[PIECES] = d2;
+      for (int i = 1; i < PIECES; i++) {
+        d[i] = distanceAt(x1, y1, x2, y2, (double) i / PIECES);
+        if (d[i] <= radius)
+          return true;
+      }
+      final double pieceLength = length / PIECES;
+      final double[] lowerBounds = new double[PIECES];
+      for (int i = 0; i < PIECES; i++) {
+        lowerBounds[i] = (d[i] + d[i + 1] - pieceLength) * 0.5;
+      }
+      int evaluations = PIECES - 1;
+      while (evaluations + 2 <= MAX_EVALUATIONS) {
+        int piece = 0;// the most promising
+        for (int i = 1; i < PIECES; i++) {
+          if (lowerBounds[i] < lowerBounds[piece])
+            piece = i;
+        }
+        if (lowerBounds[piece] > radius)
+          return false;
+        lowerBounds[piece] = Double.POSITIVE_INFINITY;
+        // Golden-section search for the closest point of the piece; the distance is unimodal on a short piece
+        double lo = (double) piece / PIECES, hi = (double) (piece + 1) / PIECES;
+        double fLo = d[piece], fHi = d[piece + 1];
+        double t1 = hi - INV_PHI * (hi - lo), t2 = lo + INV_PHI * (hi - lo);
+        double f1 = distanceAt(x1, y1, x2, y2, t1), f2 = distanceAt(x1, y1, x2, y2, t2);
+        evaluations += 2;
+        while (true) {
+          if (f1 <= radius || f2 <= radius)
+            return true;
+          // the lower bound of the bracket's closest point, from those of the 3 intervals
+          final double lowerBound = Math.min(Math.min(
+              (fLo + f1 - (t1 - lo) * length) * 0.5,
+              (f1 + f2 - (t2 - t1) * length) * 0.5),
+              (f2 + fHi - (hi - t2) * length) * 0.5);
+          if (lowerBound > radius || (hi - lo) * length <= minLength || evaluations >= MAX_EVALUATIONS)
+            break;
+          if (f1 < f2) {
+            hi = t2; fHi = f2;
+            t2 = t1; f2 = f1;
+            t1 = hi - INV_PHI * (hi - lo);
+            f1 = distanceAt(x1, y1, x2, y2, t1);
+          } else {
+            lo = t1; fLo = f1;
+            t1 = t2; f1 = f2;
+            t2 = lo + INV_PHI * (hi - lo);
+            f2 = distanceAt(x1, y1, x2, y2, t2);
+          }
+          evaluations++;
+        }
+      }
+      return false;
+    }
+
+    private double distanceAt(double x1, double y1, double x2, double y2, double t) {
+      return calc.distance(center, x1 + (x2 - x1) * t, y1 + (y2 - y1) * t);
+    }
+  }
+}
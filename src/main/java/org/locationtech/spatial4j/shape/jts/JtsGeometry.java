@@ -10,7 +10,6 @@ package org.locationtech.spatial4j.shape.jts;
 
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
-import org.locationtech.spatial4j.distance.CartesianDistCalc;
 import org.locationtech.spatial4j.exception.InvalidShapeException;
 import org.locationtech.spatial4j.shape.*;
 import org.locationtech.spatial4j.shape.Point;
@@ -25,7 +24,10 @@ import org.locationtech.jts.operation.valid.IsValidOp;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Wraps a JTS {@link Geometry} (i.e. may be a polygon or basically anything).
@@ -39,9 +41,16 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
   private final Geometry geom;//cannot be a direct instance of GeometryCollection as it doesn't support relate()
   private final boolean hasArea;
   private final Rectangle bbox;
-  protected PreparedGeometry preparedGeometry;
+  protected volatile PreparedGeometry preparedGeometry;
+  private volatile PointInPolygonIndex pointIndex;// only if Polygonal; built on first use once indexed
+  private volatile Map<LineString, SegmentIndex> segmentIndexes;// by line or ring (identity); ditto
   protected boolean validated = false;
 
+  private static final AtomicIntegerFieldUpdater<JtsGeometry> RELATE_COUNT =
+      AtomicIntegerFieldUpdater.newUpdater(JtsGeometry.class, "relateCount");
+  private volatile int relateCount;
+  private final int autoIndexThreshold;// see JtsShapeFactory.getAutoIndexThreshold()
+
   public JtsGeometry(Geometry geom, JtsSpatialContext ctx, boolean dateline180Check, boolean allowMultiOverlap) {
     super(ctx);
     //GeometryCollection isn't supported in relate()
@@ -78,12 +87,19 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
       Envelope env = geom.getEnvelopeInternal();
       bbox = new RectangleImpl(env.getMinX(), env.getMaxX(), env.getMinY(), env.getMaxY(), ctx);
     }
-    geom.getEnvelopeInternal();//ensure envelope is cached internally, which is lazy evaluated. Keeps this thread-safe.
+    //ensure envelopes (including of rings) are cached internally, which are lazy evaluated. Keeps this thread-safe.
+    geom.apply(new GeometryComponentFilter() {
+      @Override
+      public void filter(Geometry component) {
+        component.getEnvelopeInternal();
+      }
+    });
 
     this.geom = geom;
     assert assertValidate();//kinda expensive but caches valid state
 
     this.hasArea = !((geom instanceof Lineal) || (geom instanceof Puntal));
+    this.autoIndexThreshold = ctx.getShapeFactory().getAutoIndexThreshold();
   }
 
   /**
@@ -140,12 +156,67 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
    * Adds an index to this class internally to compute spatial relations faster. In JTS this
    * is called a {@link org.locationtech.jts.geom.prep.PreparedGeometry}.  This
    * isn't done by default because it takes some time to do the optimization, and it uses more
-   * memory.  Calling this method isn't thread-safe so be careful when this is done. If it was
-   * already indexed then nothing happens.
+   * memory.  Once indexed, the first {@link #relate(Point)} on a polygonal shape also builds an index of
+   * its edges for point-in-polygon, and the first {@link #relate(Circle)} an index of the segments of
+   * its long lines and rings; those are only built if used.  This is thread-safe: if threads call this
+   * concurrently, each index is only built once, and threads relating this shape meanwhile either use a
+   * complete index or none. If it was already indexed then nothing happens.
    */
   public void index() {
-    if (preparedGeometry == null)
-      preparedGeometry = PreparedGeometryFactory.prepare(geom);
+    if (preparedGeometry == null) {
+      synchronized (this) {//double-checked locking; preparedGeometry is volatile
+        if (preparedGeometry == null) {
+          preparedGeometry = PreparedGeometryFactory.prepare(geom);
+        }
+      }
+    }
+  }
+
+  /** The point-in-polygon index if indexed, built on the first call; else null.  Polygonal only. */
+  private PointInPolygonIndex getPointIndex() {
+    PointInPolygonIndex pointIndex = this.pointIndex;//volatile read
+    if (pointIndex == null && preparedGeometry != null) {
+      synchronized (this) {//double-checked locking
+        pointIndex = this.pointIndex;
+        if (pointIndex == null)
+          this.pointIndex = pointIndex = new PointInPolygonIndex(geom);
+      }
+    }
+    return pointIndex;
+  }
+
+  /** The segment indexes if indexed, built on the first call; else null. */
+  private Map<LineString, SegmentIndex> getSegmentIndexes() {
+    Map<LineString, SegmentIndex> segmentIndexes = this.segmentIndexes;//volatile read
+    if (segmentIndexes == null && preparedGeometry != null) {
+      synchronized (this) {//double-checked locking
+        segmentIndexes = this.segmentIndexes;
+        if (segmentIndexes == null)
+          this.segmentIndexes = segmentIndexes = buildSegmentIndexes(geom);
+      }
+    }
+    return segmentIndexes;
+  }
+
+  /** Indexes the segments of the long lines and rings, for {@link #relate(Circle)}. */
+  private static Map<LineString, SegmentIndex> buildSegmentIndexes(Geometry geom) {
+    final Map<LineString, SegmentIndex> map = new IdentityHashMap<>();
+    geom.apply(new GeometryComponentFilter() {
+      @Override
+      public void filter(Geometry component) {
+        if (component instanceof LineString && component.getNumPoints() > SegmentIndex.MIN_SEGMENTS)
+          map.put((LineString) component, new SegmentIndex(((LineString) component).getCoordinateSequence()));
+      }
+    });
+    return map;
+  }
+
+  /**
+   * The number of times this shape has been related to another beyond its bounding box.  When it reaches {@link JtsShapeFactory#getAutoIndexThreshold()}, the shape
+   * is {@link #index()}ed.  It isn't counted if the threshold is disabled (0), nor once the shape is indexed.
+   */
+  public int getRelateCount() {
+    return relateCount;
   }
 
   @Override
@@ -229,6 +300,14 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
   public SpatialRelation relate(Point pt) {
     if (!getBoundingBox().relate(pt).intersects())
       return SpatialRelation.DISJOINT;
+    if (geom instanceof Polygonal) {
+      // Point-in-polygon without creating a JTS Point or going through JTS's relate
+      countRelate();
+      final PointInPolygonIndex pointIndex = getPointIndex();//might be null
+      final boolean intersects = pointIndex != null ? pointIndex.intersects(pt.getX(), pt.getY())
+          : PointInPolygonIndex.intersects(geom, pt.getX(), pt.getY());
+      return intersects ? SpatialRelation.CONTAINS : SpatialRelation.DISJOINT;
+    }
     Geometry ptGeom;
     if (pt instanceof JtsPoint)
       ptGeom = ((JtsPoint)pt).getGeom();
@@ -250,19 +329,16 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
     if (bboxR == SpatialRelation.WITHIN || bboxR == SpatialRelation.DISJOINT)
       return bboxR;
     // The result could be anything still.
+    countRelate();
+    final Map<LineString, SegmentIndex> segmentIndexes = getSegmentIndexes();//might be null
 
     final SpatialRelation[] result = {null};
     // Visit each geometry (this geom might contain others).
     geom.apply(new GeometryFilter() {
 
-      // We use cartesian math.  It's a limitation/assumption when working with JTS.  When geo=true (i.e. we're using
-      //   WGS84 instead of a projected coordinate system), the errors here will be pretty terrible east-west.  At
-      //   60 degrees latitude, the circle will work as if it has half the width it should.
-      //   Instead, consider converting the circle to a polygon first (not great but better), or projecting both first.
-      //   Ideally, use Geo3D.
-      final CartesianDistCalc calcSqd = CartesianDistCalc.INSTANCE_SQUARED;
-      final double radiusSquared = circle.getRadius() * circle.getRadius();
-      final Geometry ctrGeom = ctx.getGeometryFrom(circle.getCenter());
+      // Segments are straight in x-y, as with JTS and the bbox.  When geo=true, distances to points and segments
+      //   are geodesic; see CircleTester.
+      final CircleTester tester = CircleTester.create(ctx, circle);
 
       @Override
       public void filter(Geometry geom) {
@@ -278,7 +354,7 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
           if (rel == SpatialRelation.CONTAINS) {
             // if the poly outer ring contains the circle, check the holes. Could become DISJOINT or INTERSECTS.
             HOLE_LOOP: for (int i = 0; i < polygon.getNumInteriorRing(); i++){
-              // TODO short-circuit based on the hole's bbox if it's disjoint or within the circle.
+              // (relateLineString short-circuits based on the hole's bbox if it's disjoint or within the circle)
               switch (relateEnclosedRing((LinearRing) polygon.getInteriorRingN(i))) {
                 case WITHIN:// fall through
                 case INTERSECTS:
@@ -298,9 +374,8 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
           result[0] = rel.combine(result[0]);
         } else if (geom instanceof org.locationtech.jts.geom.Point) {
           org.locationtech.jts.geom.Point point = (org.locationtech.jts.geom.Point) geom;
-          SpatialRelation rel =
-                  calcSqd.distance(circle.getCenter(), point.getX(), point.getY()) > radiusSquared
-                          ? SpatialRelation.DISJOINT : SpatialRelation.WITHIN;
+          SpatialRelation rel = tester.pointOutside(point.getX(), point.getY())
+                  ? SpatialRelation.DISJOINT : SpatialRelation.WITHIN;
           result[0] = rel.combine(result[0]);
         }
         // else it's going to be some GeometryCollection and we'll visit the contents.
@@ -309,15 +384,38 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
       /** As if the ring is the outer ring of a polygon */
       SpatialRelation relateEnclosedRing(LinearRing ring) {
         SpatialRelation rel = relateLineString(ring);
-        if (rel == SpatialRelation.DISJOINT
-                && ctx.getGeometryFactory().createPolygon(ring, null).contains(ctrGeom)) {
+        if (rel == SpatialRelation.DISJOINT && ringContainsCenter(ring)) {
           // If it contains the circle center point, then the result is CONTAINS
           rel = SpatialRelation.CONTAINS;
         }
         return rel;
       }
 
+      boolean ringContainsCenter(LinearRing ring) {
+        final double ctrX = circle.getCenter().getX(), ctrY = circle.getCenter().getY();
+        if (!ring.getEnvelopeInternal().contains(ctrX, ctrY))
+          return false;
+        final SegmentIndex segmentIndex = segmentIndexes == null ? null : segmentIndexes.get(ring);
+        if (segmentIndex != null)
+          return segmentIndex.ringContains(ctrX, ctrY);
+        return PointInPolygonIndex.ringContains(ring.getCoordinateSequence(), ctrX, ctrY);
+      }
+
       SpatialRelation relateLineString(LineString lineString) {
+        // Short-circuit based on the bbox (which is cached; see the constructor)
+        final Envelope env = lineString.getEnvelopeInternal();
+        if (tester.boxDisjoint(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY()))
+          return SpatialRelation.DISJOINT;
+        if (tester.boxWithin(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY()))
+          return SpatialRelation.WITHIN.combine(result[0]);// all vertices are inside
+
+        final SegmentIndex segmentIndex = segmentIndexes == null ? null : segmentIndexes.get(lineString);
+        if (segmentIndex != null) {
+          final boolean someOutside = tester.boxExceeds(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+          SpatialRelation rel = segmentIndex.relateCircle(tester, someOutside);
+          return rel == SpatialRelation.WITHIN ? rel.combine(result[0]) : rel;
+        }
+
         final CoordinateSequence seq = lineString.getCoordinateSequence();
         final boolean isRing = lineString instanceof LinearRing;
         int numOutside = 0;
@@ -327,7 +425,7 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
             continue;
           }
           numComparisons++;
-          boolean outside = calcSqd.distance(circle.getCenter(), seq.getX(i), seq.getY(i)) > radiusSquared;
+          boolean outside = tester.pointOutside(seq.getX(i), seq.getY(i));
           if (outside) {
             numOutside++;
           }
@@ -344,10 +442,7 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
         // They are all outside.
         // Check the edges (line segments) to see if any are inside.
         for (int i = 1; i < seq.size(); i++) {
-          boolean outside = calcSqd.distanceToLineSegment(
-                  circle.getCenter(), seq.getX(i-1), seq.getY(i-1), seq.getX(i), seq.getY(i))
-                  > radiusSquared;
-          if (!outside) {
+          if (tester.segmentIntersects(seq.getX(i-1), seq.getY(i-1), seq.getX(i), seq.getY(i))) {
             return SpatialRelation.INTERSECTS;
           }
         }
@@ -364,6 +459,8 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
   }
 
   protected SpatialRelation relate(Geometry oGeom) {
+    countRelate();
+    final PreparedGeometry preparedGeometry = this.preparedGeometry;//volatile read
     //see http://docs.geotools.org/latest/userguide/library/jts/dim9.html#preparedgeometry
     if (oGeom instanceof org.locationtech.jts.geom.Point) {
       if (preparedGeometry != null)
@@ -381,6 +478,14 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
     return SpatialRelation.DISJOINT;
   }
 
+  private void countRelate() {
+    // no counter writes (contended if the shape is shared by threads) unless it may lead to indexing
+    if (autoIndexThreshold <= 0 || preparedGeometry != null)
+      return;
+    if (RELATE_COUNT.incrementAndGet(this) >= autoIndexThreshold)
+      index();// it's being used repeatedly; idempotent if another thread got here too
+  }
+
   public static SpatialRelation intersectionMatrixToSpatialRelation(IntersectionMatrix matrix) {
     //As indicated in SpatialRelation javadocs, Spatial4j CONTAINS & WITHIN are
     // OGC's COVERS & COVEREDBY
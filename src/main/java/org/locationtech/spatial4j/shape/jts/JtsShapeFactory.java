@@ -47,6 +47,7 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
   protected final DatelineRule datelineRule;
   protected final ValidationRule validationRule;
   protected final boolean autoIndex;
+  protected final int autoIndexThreshold;
 
   /**
    * Called by {@link org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory#newSpatialContext()}.
@@ -62,6 +63,7 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
     this.datelineRule = factory.datelineRule;
     this.validationRule = factory.validationRule;
     this.autoIndex = factory.autoIndex;
+    this.autoIndexThreshold = factory.autoIndexThreshold;
   }
 
   /**
@@ -99,6 +101,17 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
     return autoIndex;
   }
 
+  /**
+   * If positive, a JtsGeometry will "prepare" (i.e. optimize) itself once it has been related to other shapes
+   * this many times, so that only shapes that are used repeatedly pay for it.  0 (the default) disables this.
+   * It's moot if {@link #isAutoIndex()}.
+   *
+   * @see org.locationtech.spatial4j.shape.jts.JtsGeometry#getRelateCount()
+   */
+  public int getAutoIndexThreshold() {
+    return autoIndexThreshold;
+  }
+
   @Override
   public double normX(double x) {
     x = super.normX(x);
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.jts;
+
+import org.locationtech.jts.algorithm.CGAlgorithmsDD;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.Arrays;
+
+/**
+ * Tests whether a point intersects a polygonal geometry (Polygon or MultiPolygon, holes included), without
+ * creating any objects per test.  The ring edges are flattened into a {@code double[]} and bucketed by Y into
+ * equal-height bins, so a test only visits the edges whose Y range spans the point's bin.  Each edge is tested
+ * exactly as JTS's {@link org.locationtech.jts.algorithm.RayCrossingCounter} does, so the result agrees with
+ * JTS: a point on the boundary intersects.
+ * <p>
+ * Immutable &amp; threadsafe.
+ */
+final class PointInPolygonIndex {
+
+  private static final int MAX_BINS = 1 << 16;
+
+  private final double minY;
+  private final double binsPerY;
+  private final int numBins;
+  private final int[] binStart;// by bin; the first edge in binEdges. Has numBins + 1 elements.
+  private final double[] binEdges;// x1, y1, x2, y2 of each edge of each bin (edges may be in several bins)
+
+  /** @param geom Polygonal; it's not retained. */
+  PointInPolygonIndex(Geometry geom) {
+    // Flatten the edges
+    int numEdges = 0;
+    for (int g = 0; g < geom.getNumGeometries(); g++) {
+      Polygon poly = (Polygon) geom.getGeometryN(g);
+      numEdges += Math.max(0, poly.getExteriorRing().getNumPoints() - 1);
+      for (int r = 0; r < poly.getNumInteriorRing(); r++)
+        numEdges += Math.max(0, poly.getInteriorRingN(r).getNumPoints() - 1);
+    }
+    final double[] edges = new double[numEdges * 4];
+    int e = 0;
+    for (int g = 0; g < geom.getNumGeometries(); g++) {
+      Polygon poly = (Polygon) geom.getGeometryN(g);
+      e = addRing(poly.getExteriorRing(), edges, e);
+      for (int r = 0; r < poly.getNumInteriorRing(); r++)
+        e = addRing(poly.getInteriorRingN(r), edges, e);
+    }
+    assert e == numEdges * 4;
+
+    this.minY = geom.getEnvelopeInternal().getMinY();
+    final double height = geom.getEnvelopeInternal().getHeight();
+    // Choose the number of bins; fewer if tall edges would be duplicated into too many of them.
+    int bins = height > 0 ? Math.max(1, Math.min(MAX_BINS, numEdges / 2)) : 1;
+    int[] counts;
+    while (true) {
+      counts = countBinEdges(edges, numEdges, bins, height > 0 ? bins / height : 0);
+      int total = 0;
+      for (int count : counts)
+        total += count;
+      if (bins == 1 || total <= numEdges * 4)
+        break;
+      bins /= 2;
+    }
+    this.numBins = bins;
+    this.binsPerY = height > 0 ? bins / height : 0;
+
+    this.binStart = new int[numBins + 1];
+    for (int b = 0; b < numBins; b++)
+      binStart[b + 1] = binStart[b] + counts[b];
+    this.binEdges = new double[binStart[numBins] * 4];
+    final int[] next = Arrays.copyOf(binStart, numBins);
+    for (int i = 0; i < numEdges * 4; i += 4) {
+      final int toBin = bin(Math.max(edges[i + 1], edges[i + 3]));
+      for (int b = bin(Math.min(edges[i + 1], edges[i + 3])); b <= toBin; b++) {
+        System.arraycopy(edges, i, binEdges, next[b]++ * 4, 4);
+      }
+    }
+  }
+
+  /** Adds the ring's edges as JTS's RayCrossingCounter visits them: from point i to point i-1. */
+  private static int addRing(LineString ring, double[] edges, int e) {
+    final CoordinateSequence seq = ring.getCoordinateSequence();
+    for (int i = 1; i < seq.size(); i++) {
+      edges[e++] = seq.getX(i);
+      edges[e++] = seq.getY(i);
+      edges[e++] = seq.getX(i - 1);
+      edges[e++] = seq.getY(i - 1);
+    }
+    return e;
+  }
+
+  private int[] countBinEdges(double[] edges, int numEdges, int bins, double binsPerY) {
+    final int[] counts = new int[bins];
+    for (int i = 0; i < numEdges * 4; i += 4) {
+      final int toBin = bin(Math.max(edges[i + 1], edges[i + 3]), bins, binsPerY);
+      for (int b = bin(Math.min(edges[i + 1], edges[i + 3]), bins, binsPerY); b <= toBin; b++)
+        counts[b]++;
+    }
+    return counts;
+  }
+
+  private int bin(double y) {
+    return bin(y, numBins, binsPerY);
+  }
+
+  private int bin(double y, int bins, double binsPerY) {
+    final int b = (int) ((y - minY) * binsPerY);
+    return b < 0 ? 0 : (b >= bins ? bins - 1 : b);
+  }
+
+  /** Whether the point is in the interior or on the boundary. */
+  boolean intersects(double x, double y) {
+    final int b = bin(y);
+    int crossings = 0;
+    for (int i = binStart[b] * 4, end = binStart[b + 1] * 4; i < end; i += 4) {
+      final int cross = countSegment(binEdges[i], binEdges[i + 1], binEdges[i + 2], binEdges[i + 3], x, y);
+      if (cross < 0)
+        return true;// on the boundary
+      crossings += cross;
+    }
+    return (crossings & 1) == 1;
+  }
+
+  /**
+   * Like {@link #intersects(double, double)} but scans the geometry's rings instead of using an index.
+   * @param geom Polygonal
+   */
+  static boolean intersects(Geometry geom, double x, double y) {
+    int crossings = 0;
+    for (int g = 0; g < geom.getNumGeometries(); g++) {
+      Polygon poly = (Polygon) geom.getGeometryN(g);
+      for (int r = -1; r < poly.getNumInteriorRing(); r++) {
+        final LineString ring = r < 0 ? poly.getExteriorRing() : poly.getInteriorRingN(r);
+        final CoordinateSequence seq = ring.getCoordinateSequence();
+        for (int i = 1; i < seq.size(); i++) {
+          final int cross = countSegment(seq.getX(i), seq.getY(i), seq.getX(i - 1), seq.getY(i - 1), x, y);
+          if (cross < 0)
+            return true;// on the boundary
+          crossings += cross;
+        }
+      }
+    }
+    return (crossings & 1) == 1;
+  }
+
+  /**
+   * Whether the point is in the interior of the ring (not on it), like {@code Polygon.contains(Point)} of a
+   * polygon with this shell.
+   */
+  static boolean ringContains(CoordinateSequence ring, double x, double y) {
+    int crossings = 0;
+    for (int i = 1; i < ring.size(); i++) {
+      final int cross = countSegment(ring.getX(i), ring.getY(i), ring.getX(i - 1), ring.getY(i - 1), x, y);
+      if (cross < 0)
+        return false;// on the boundary
+      crossings += cross;
+    }
+    return (crossings & 1) == 1;
+  }
+
+  /**
+   * A copy of {@code RayCrossingCounter.countSegment} that doesn't need Coordinate objects.
+   * @return 1 if the edge crosses the ray extending right of the point, 0 if not, or -1 if the point is on it.
+   */
+  static int countSegment(double x1, double y1, double x2, double y2, double x, double y) {
+    // check if the segment is strictly to the left of the test point
+    if (x1 < x && x2 < x)
+      return 0;
+    // check if the point is equal to the current ring vertex
+    if (x == x2 && y == y2)
+      return -1;
+    // for horizontal segments, check if the point is on the segment
+    if (y1 == y && y2 == y) {
+      return x >= Math.min(x1, x2) && x <= Math.max(x1, x2) ? -1 : 0;
+    }
+    // evaluate non-horizontal segments which cross a horizontal ray to the right of the test point
+    if ((y1 > y && y2 <= y) || (y2 > y && y1 <= y)) {
+      int orient = CGAlgorithmsDD.orientationIndex(x1, y1, x2, y2, x, y);
+      if (orient == 0)
+        return -1;
+      // re-orient the segment upwards
+      if (y2 < y1)
+        orient = -orient;
+      return orient > 0 ? 1 : 0;
+    }
+    return 0;
+  }
+}
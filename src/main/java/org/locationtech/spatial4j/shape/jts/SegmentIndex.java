@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.jts;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+/**
+ * A hierarchy of bounding boxes over the segments of a LineString (or ring), so that relating it to a circle only
+ * visits the segments near the circle.  Consecutive segments of a line are usually near each other, so the
+ * hierarchy simply groups runs of {@value #NODE_SIZE} consecutive segments, then runs of those nodes, up to one
+ * root.  The bounds of each level are kept in a flat {@code double[]} of minX, minY, maxX, maxY per node.
+ * <p>
+ * Immutable &amp; threadsafe.
+ */
+final class SegmentIndex {
+
+  /** Lines with fewer segments aren't worth indexing. */
+  static final int MIN_SEGMENTS = 64;
+  private static final int NODE_SIZE = 16;
+
+  private final double[] xy;// x, y of each point
+  private final int numSegments;
+  private final double[][] levels;// level 0 bounds runs of segments; each next level bounds runs of nodes of the prior
+
+  SegmentIndex(CoordinateSequence seq) {
+    final int numPoints = seq.size();
+    this.numSegments = numPoints - 1;
+    this.xy = new double[numPoints * 2];
+    for (int i = 0; i < numPoints; i++) {
+      xy[i * 2] = seq.getX(i);
+      xy[i * 2 + 1] = seq.getY(i);
+    }
+    int numLevels = 0;
+    for (int size = numSegments; size > 1 || numLevels == 0; size = ceilDiv(size, NODE_SIZE))
+      numLevels++;
+    this.levels = new double[numLevels][];
+    for (int level = 0; level < numLevels; level++) {
+      final int childSize = level == 0 ? numSegments : levels[level - 1].length / 4;
+      final double[] bounds = levels[level] = new double[ceilDiv(childSize, NODE_SIZE) * 4];
+      for (int n = 0; n < bounds.length / 4; n++) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        final int to = Math.min((n + 1) * NODE_SIZE, childSize);
+        for (int c = n * NODE_SIZE; c < to; c++) {
+          if (level == 0) {// segment c spans points c and c+1
+            minX = Math.min(minX, Math.min(xy[c * 2], xy[c * 2 + 2]));
+            minY = Math.min(minY, Math.min(xy[c * 2 + 1], xy[c * 2 + 3]));
+            maxX = Math.max(maxX, Math.max(xy[c * 2], xy[c * 2 + 2]));
+            maxY = Math.max(maxY, Math.max(xy[c * 2 + 1], xy[c * 2 + 3]));
+          } else {
+            final double[] child = levels[level - 1];
+            minX = Math.min(minX, child[c * 4]);
+            minY = Math.min(minY, child[c * 4 + 1]);
+            maxX = Math.max(maxX, child[c * 4 + 2]);
+            maxY = Math.max(maxY, child[c * 4 + 3]);
+          }
+        }
+        bounds[n * 4] = minX;
+        bounds[n * 4 + 1] = minY;
+        bounds[n * 4 + 2] = maxX;
+        bounds[n * 4 + 3] = maxY;
+      }
+    }
+  }
+
+  private static int ceilDiv(int a, int b) {
+    return (a + b - 1) / b;
+  }
+
+  /**
+   * Whether the point is in the interior of the ring (not on it); see
+   * {@link PointInPolygonIndex#ringContains(org.locationtech.jts.geom.CoordinateSequence, double, double)}.
+   * Only segments whose bounding box could touch the ray extending right of the point are visited.
+   */
+  boolean ringContains(double x, double y) {
+    int crossings = 0;
+    final int[] stack = new int[(levels.length * NODE_SIZE + 1) * 2];
+    int stackSize = 0;
+    stack[stackSize++] = levels.length - 1;
+    stack[stackSize++] = 0;
+    while (stackSize > 0) {
+      final int node = stack[--stackSize];
+      final int level = stack[--stackSize];
+      final double[] bounds = levels[level];
+      if (bounds[node * 4 + 2] < x || bounds[node * 4 + 1] > y || bounds[node * 4 + 3] < y)
+        continue;
+      final int childSize = level == 0 ? numSegments : levels[level - 1].length / 4;
+      final int to = Math.min((node + 1) * NODE_SIZE, childSize);
+      if (level > 0) {
+        for (int c = to - 1; c >= node * NODE_SIZE; c--) {
+          stack[stackSize++] = level - 1;
+          stack[stackSize++] = c;
+        }
+        continue;
+      }
+      for (int seg = node * NODE_SIZE; seg < to; seg++) {
+        // (as RayCrossingCounter visits them: from point i to point i-1)
+        final int cross = PointInPolygonIndex.countSegment(
+            xy[seg * 2 + 2], xy[seg * 2 + 3], xy[seg * 2], xy[seg * 2 + 1], x, y);
+        if (cross < 0)
+          return false;// on the boundary
+        crossings += cross;
+      }
+    }
+    return (crossings & 1) == 1;
+  }
+
+  /**
+   * Relates the line to a circle with the same math &amp; result as a scan of all of its points and segments
+   * would: INTERSECTS if some points are in the circle and some aren't, or if none are but a segment passes
+   * through it; WITHIN if all points are in it; else DISJOINT. Segments whose bounding box is disjoint from that
+   * of the circle aren't visited; their points must be outside of it.
+   *
+   * @param someOutside Whether it's known that some point is outside the circle's bounding box.
+   */
+  SpatialRelation relateCircle(CircleTester tester, boolean someOutside) {
+    boolean someInside = false;
+    // depth-first; each stack entry is a level and node
+    final int[] stack = new int[(levels.length * NODE_SIZE + 1) * 2];
+    int stackSize = 0;
+    stack[stackSize++] = levels.length - 1;
+    stack[stackSize++] = 0;
+    while (stackSize > 0) {
+      final int node = stack[--stackSize];
+      final int level = stack[--stackSize];
+      final double[] bounds = levels[level];
+      if (tester.boxDisjoint(bounds[node * 4], bounds[node * 4 + 1], bounds[node * 4 + 2], bounds[node * 4 + 3]))
+        continue;
+      final int childSize = level == 0 ? numSegments : levels[level - 1].length / 4;
+      final int to = Math.min((node + 1) * NODE_SIZE, childSize);
+      if (level > 0) {
+        for (int c = to - 1; c >= node * NODE_SIZE; c--) {
+          stack[stackSize++] = level - 1;
+          stack[stackSize++] = c;
+        }
+        continue;
+      }
+      for (int seg = node * NODE_SIZE; seg < to; seg++) {
+        final double x1 = xy[seg * 2], y1 = xy[seg * 2 + 1], x2 = xy[seg * 2 + 2], y2 = xy[seg * 2 + 3];
+        if (tester.boxDisjoint(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)))
+          continue;
+        final boolean outside1 = tester.pointOutside(x1, y1);
+        final boolean outside2 = tester.pointOutside(x2, y2);
+        if (outside1 || outside2)
+          someOutside = true;
+        if (!outside1 || !outside2)
+          someInside = true;
+        if (someInside && someOutside)
+          return SpatialRelation.INTERSECTS;
+        if (outside1 && outside2 && tester.segmentIntersects(x1, y1, x2, y2))
+          return SpatialRelation.INTERSECTS;
+      }
+    }
+    if (!someOutside)
+      return SpatialRelation.WITHIN;
+    return SpatialRelation.DISJOINT;
+  }
+}
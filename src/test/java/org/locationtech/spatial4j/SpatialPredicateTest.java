@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j;
+
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Shape;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SpatialPredicateTest extends RandomizedShapeTest {
+
+  public SpatialPredicateTest() {
+    super(SpatialContext.GEO);
+  }
+
+  /** A prepared evaluator should agree with evaluate(Shape, Shape), one at a time and in bulk. */
+  @Test @Repeat(iterations = 10)
+  public void testPreparedAgrees() {
+    List<Shape> shapes = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      shapes.add(randomShape());
+    }
+    shapes.add(ctx.makePoint(Double.NaN, Double.NaN));// empty
+    for (int q = 0; q < 20; q++) {
+      // sometimes equal to an indexed shape
+      Shape queryShape = randomBoolean() ? shapes.get(randomInt(shapes.size() - 1)) : randomShape();
+      for (SpatialPredicate predicate : SpatialPredicate.values()) {
+        SpatialPredicate.Evaluator evaluator = predicate.prepare(queryShape);
+        assertEquals(predicate, evaluator.getPredicate());
+        BitSet expected = new BitSet();
+        for (int i = 0; i < shapes.size(); i++) {
+          final boolean match = predicate.evaluate(shapes.get(i), queryShape);
+          if (match)
+            expected.set(i);
+          assertEquals(predicate + " " + shapes.get(i) + " " + queryShape, match, evaluator.evaluate(shapes.get(i)));
+        }
+        BitSet actual = new BitSet();
+        evaluator.evaluate(shapes, actual);
+        assertEquals(predicate + " " + queryShape, expected, actual);
+      }
+    }
+  }
+
+  /** Predicates that aren't known to be false (or true) for disjoint bounding boxes must evaluate every shape. */
+  @Test
+  public void testPreparedNotBBoxFiltered() {
+    // (a custom predicate would be registered in values() for good, so just Equals)
+    Shape queryShape = ctx.makeRectangle(0, 10, 0, 10);
+    assertEquals(SpatialPredicate.Evaluator.class, SpatialPredicate.IsEqualTo.prepare(queryShape).getClass());
+    assertNotEquals(SpatialPredicate.Evaluator.class, SpatialPredicate.Intersects.prepare(queryShape).getClass());
+  }
+
+  private Shape randomShape() {
+    switch (randomInt(2)) {
+      case 0: return randomPoint();
+      case 1: return randomRectangle(10);
+      default: return ctx.makeCircle(randomPoint(), randomDouble() * 40);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.benchmark;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.impl.BufferedLineString;
+import org.locationtech.spatial4j.shape.impl.GeoCircle;
+import org.locationtech.spatial4j.shape.impl.PointImpl;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible random shapes of a given kind for the benchmarks. All shapes are built
+ * explicitly from the implementation classes (not the {@link org.locationtech.spatial4j.shape.ShapeFactory})
+ * so that the benchmark measures exactly the class it names.
+ */
+public class BenchmarkShapes {
+
+  /** The shape kinds accepted by {@link #make(String, Random, JtsSpatialContext)}. */
+  public static final String POINT = "point", RECT = "rect", CIRCLE = "circle",
+      BUFFERED_LINE_STRING = "bufferedLineString", COLLECTION = "collection", JTS = "jtsGeometry";
+
+  // Shapes are placed in a smallish region so that a decent fraction of pairs actually interact.
+  private static final double REGION = 20;
+
+  private BenchmarkShapes() {
+  }
+
+  /** Makes {@code count} shapes of the given kind. */
+  public static Shape[] make(String kind, int count, long seed, JtsSpatialContext ctx) {
+    Random random = new Random(seed);
+    Shape[] shapes = new Shape[count];
+    for (int i = 0; i < count; i++) {
+      shapes[i] = make(kind, random, ctx);
+    }
+    return shapes;
+  }
+
+  public static Shape make(String kind, Random random, JtsSpatialContext ctx) {
+    switch (kind) {
+      case POINT:
+        return randomPoint(random, ctx);
+      case RECT: {
+        double x = coord(random), y = coord(random);
+        return new RectangleImpl(x, x + 1 + random.nextDouble() * 5, y, y + 1 + random.nextDouble() * 5, ctx);
+      }
+      case CIRCLE:
+        return new GeoCircle(randomPoint(random, ctx), 0.5 + random.nextDouble() * 5, ctx);
+      case BUFFERED_LINE_STRING: {
+        List<Point> points = new ArrayList<>();
+        Point prev = randomPoint(random, ctx);
+        points.add(prev);
+        for (int i = 0; i < 5; i++) {
+          prev = new PointImpl(prev.getX() + random.nextDouble() * 2, prev.getY() + random.nextDouble() * 2 - 1, ctx);
+          points.add(prev);
+        }
+        return new BufferedLineString(points, 0.1 + random.nextDouble(), ctx);
+      }
+      case COLLECTION: {
+        List<Shape> members = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          members.add(make(random.nextBoolean() ? RECT : CIRCLE, random, ctx));
+        }
+        return new ShapeCollection<>(members, ctx);
+      }
+      case JTS:
+        return randomPolygon(random, 64, ctx);
+      default:
+        throw new IllegalArgumentException("Unknown shape kind: " + kind);
+    }
+  }
+
+  /** A star-shaped (thus valid) polygon with {@code numVertices} vertices. */
+  public static Shape randomPolygon(Random random, int numVertices, JtsSpatialContext ctx) {
+    double cx = coord(random), cy = coord(random);
+    double radius = 1 + random.nextDouble() * 5;
+    Coordinate[] coords = new Coordinate[numVertices + 1];
+    for (int i = 0; i < numVertices; i++) {
+      double angle = 2 * Math.PI * i / numVertices;
+      double r = radius * (0.5 + random.nextDouble() / 2);
+      coords[i] = new Coordinate(cx + r * Math.cos(angle), cy + r * Math.sin(angle));
+    }
+    coords[numVertices] = coords[0];
+    return ctx.makeShape(ctx.getGeometryFactory().createPolygon(coords));
+  }
+
+  private static Point randomPoint(Random random, JtsSpatialContext ctx) {
+    return new PointImpl(coord(random), coord(random), ctx);
+  }
+
+  private static double coord(Random random) {
+    return (random.nextDouble() * 2 - 1) * REGION;
+  }
+
+  /** Reads the non-blank, non-comment lines of a classpath resource. */
+  public static List<String> readLines(String resource) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(
+        BenchmarkShapes.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        line = line.trim();
+        if (line.startsWith("#") || line.isEmpty()) {
+          continue;
+        }
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+}
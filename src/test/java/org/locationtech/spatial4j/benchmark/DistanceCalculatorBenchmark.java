@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.benchmark;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.distance.DistanceCalculator;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each {@link DistanceCalculator}, chosen by the same names that
+ * {@link SpatialContextFactory} accepts for "distCalculator".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceCalculatorBenchmark {
+
+  private static final int POOL_SIZE = 1024;// a power of 2
+
+  @Param({"haversine", "lawOfCosines", "vincentySphere", "wgs84", "cartesian", "cartesian^2"})
+  public String distCalculator;
+
+  private SpatialContext ctx;
+  private DistanceCalculator calc;
+  private Point[] from;
+  private double[] toX;
+  private double[] toY;
+  private double[] dist;
+  private double[] farDist;
+  private double[] out;
+  private double[] bearing;
+  private Point reusePoint;
+  private Rectangle reuseRect;
+  private int idx;
+
+  @Setup
+  public void setup() {
+    ctx = SpatialContextFactory.makeSpatialContext(
+        Collections.singletonMap("distCalculator", distCalculator), getClass().getClassLoader());
+    calc = ctx.getDistCalc();
+    Random random = new Random(1);
+    from = new Point[POOL_SIZE];
+    toX = new double[POOL_SIZE];
+    toY = new double[POOL_SIZE];
+    dist = new double[POOL_SIZE];
+    farDist = new double[POOL_SIZE];
+    bearing = new double[POOL_SIZE];
+    out = new double[POOL_SIZE];
+    for (int i = 0; i < POOL_SIZE; i++) {
+      from[i] = ctx.makePoint(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+      toX[i] = random.nextDouble() * 360 - 180;
+      toY[i] = random.nextDouble() * 180 - 90;
+      dist[i] = random.nextDouble() * 10;
+      farDist[i] = random.nextDouble() * 90;
+      bearing[i] = random.nextDouble() * 360;
+    }
+    reusePoint = ctx.makePoint(0, 0);
+    reuseRect = ctx.makeRectangle(0, 0, 0, 0);
+  }
+
+  @Benchmark
+  public double distance() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return calc.distance(from[i], toX[i], toY[i]);
+  }
+
+  /** Distances from one point to the whole pool; divide by the pool size for the per-point cost. */
+  @Benchmark
+  public double[] distances() {
+    int i = idx++ & (POOL_SIZE - 1);
+    calc.distances(from[i], toX, toY, 0, POOL_SIZE, out);
+    return out;
+  }
+
+  @Benchmark
+  public boolean within() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return calc.within(from[i], toX[i], toY[i], dist[i]);
+  }
+
+  @Benchmark
+  public Point pointOnBearing() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return calc.pointOnBearing(from[i], dist[i], bearing[i], ctx, reusePoint);
+  }
+
+  @Benchmark
+  public Rectangle calcBoxByDistFromPt() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return calc.calcBoxByDistFromPt(from[i], dist[i], ctx, reuseRect);
+  }
+
+  /** Up to 90 degrees, so some of the boxes reach a pole or are near one. */
+  @Benchmark
+  public Rectangle calcBoxByDistFromPtFar() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return calc.calcBoxByDistFromPt(from[i], farDist[i], ctx, reuseRect);
+  }
+
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.benchmark;
+
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar {@link DistanceUtils#distHaversineRAD(double, double, double, double)} in a
+ * loop to the bulk methods over arrays of radians.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HaversineBenchmark {
+
+  @Param({"100000"})
+  public int size;
+
+  private final double lat1 = 0.5, lon1 = -1.2, distRAD = 0.05;
+  private double[] lats;
+  private double[] lons;
+  private double[] dists;
+  private boolean[] within;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1);
+    lats = new double[size];
+    lons = new double[size];
+    dists = new double[size];
+    within = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      lats[i] = (random.nextDouble() - 0.5) * Math.PI;
+      lons[i] = (random.nextDouble() * 2 - 1) * Math.PI;
+    }
+  }
+
+  @Benchmark
+  public double[] scalarDistances() {
+    for (int i = 0; i < size; i++) {
+      dists[i] = DistanceUtils.distHaversineRAD(lat1, lon1, lats[i], lons[i]);
+    }
+    return dists;
+  }
+
+  @Benchmark
+  public double[] bulkDistances() {
+    DistanceUtils.distHaversineRAD(lat1, lon1, lats, lons, 0, size, dists);
+    return dists;
+  }
+
+  @Benchmark
+  public boolean[] scalarWithin() {
+    for (int i = 0; i < size; i++) {
+      within[i] = DistanceUtils.distHaversineRAD(lat1, lon1, lats[i], lons[i]) <= distRAD;
+    }
+    return within;
+  }
+
+  @Benchmark
+  public boolean[] bulkWithin() {
+    DistanceUtils.withinHaversineRAD(lat1, lon1, distRAD, lats, lons, 0, size, within);
+    return within;
+  }
+
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.benchmark;
+
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Shape#relate(Shape)} for pairs of shape implementations. Each invocation relates
+ * the next pair out of a fixed pool of random shapes so that the result varies, as it would in a
+ * real query.
+ * <p>
+ * {@link org.locationtech.spatial4j.shape.impl.BufferedLineString} only relates to points and
+ * rectangles, so its other pairings are absent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelateBenchmark {
+
+  private static final int POOL_SIZE = 1024;// a power of 2
+
+  /** "shape:other" where each is a kind known to {@link BenchmarkShapes}. */
+  @Param({
+      "point:point", "point:rect", "point:circle", "point:bufferedLineString", "point:collection", "point:jtsGeometry",
+      "rect:point", "rect:rect", "rect:circle", "rect:bufferedLineString", "rect:collection", "rect:jtsGeometry",
+      "circle:point", "circle:rect", "circle:circle", "circle:collection", "circle:jtsGeometry",
+      "bufferedLineString:point", "bufferedLineString:rect",
+      "collection:point", "collection:rect", "collection:circle", "collection:collection", "collection:jtsGeometry",
+      "jtsGeometry:point", "jtsGeometry:rect", "jtsGeometry:circle", "jtsGeometry:collection", "jtsGeometry:jtsGeometry"
+  })
+  public String pair;
+
+  private Shape[] shapes;
+  private Shape[] others;
+  private int idx;
+
+  @Setup
+  public void setup() {
+    String[] kinds = pair.split(":");
+    JtsSpatialContext ctx = JtsSpatialContext.GEO;
+    shapes = BenchmarkShapes.make(kinds[0], POOL_SIZE, 1, ctx);
+    others = BenchmarkShapes.make(kinds[1], POOL_SIZE, 2, ctx);
+  }
+
+  @Benchmark
+  public SpatialRelation relate() {
+    int i = idx++ & (POOL_SIZE - 1);
+    return shapes[i].relate(others[i]);
+  }
+
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.benchmark;
+
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.io.ShapeIO;
+import org.locationtech.spatial4j.io.ShapeReader;
+import org.locationtech.spatial4j.io.ShapeWriter;
+import org.locationtech.spatial4j.shape.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and writing with each {@link ShapeReader} &amp; {@link ShapeWriter} of the
+ * context's {@link org.locationtech.spatial4j.io.SupportedFormats}. The shapes come from WKT test
+ * resources; shapes a format can't represent (e.g. polygons in the legacy format) are skipped.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeFormatBenchmark {
+
+  @Param({ShapeIO.WKT, ShapeIO.GeoJSON, ShapeIO.POLY, ShapeIO.LEGACY})
+  public String format;
+
+  /** Test resources with one WKT shape per line. */
+  private static final String[] RESOURCES = {"/samples.txt", "/fiji.wkt.txt", "/russia.wkt.txt"};
+
+  private ShapeReader reader;
+  private ShapeWriter writer;
+  private Shape[] shapes;
+  private String[] encoded;
+  private int idx;
+
+  @Setup
+  public void setup() throws Exception {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.normWrapLongitude = true;
+    JtsSpatialContext ctx = factory.newSpatialContext();
+    reader = ctx.getFormats().getReader(format);
+    writer = ctx.getFormats().getWriter(format);
+
+    List<Shape> shapeList = new ArrayList<>();
+    List<String> encodedList = new ArrayList<>();
+    for (String resource : RESOURCES) {
+      for (String wkt : BenchmarkShapes.readLines(resource)) {
+        Shape shape = ctx.getFormats().getWktReader().read(wkt);
+        String str;
+        try {
+          str = writer.toString(shape);
+          reader.read(str);
+        } catch (Exception e) {
+          continue;// not supported by this format
+        }
+        shapeList.add(shape);
+        encodedList.add(str);
+      }
+    }
+    shapes = shapeList.toArray(new Shape[0]);
+    encoded = encodedList.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public Object read() throws Exception {
+    int i = idx++ % encoded.length;
+    return reader.read(encoded[i]);
+  }
+
+  @Benchmark
+  public String write() {
+    int i = idx++ % shapes.length;
+    return writer.toString(shapes[i]);
+  }
+
+}
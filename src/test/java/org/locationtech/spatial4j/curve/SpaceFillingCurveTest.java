@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.curve;
+
+import com.carrotsearch.randomizedtesting.RandomizedTest;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpaceFillingCurveTest extends RandomizedTest {
+
+  private final SpatialContext ctx = SpatialContext.GEO;
+
+  private SpaceFillingCurve randomCurve(int order) {
+    return randomBoolean() ? new HilbertCurve(ctx, order) : new MortonCurve(ctx, order);
+  }
+
+  @Test
+  public void testEncode() {
+    for (int i = 0; i < 1000; i++) {
+      SpaceFillingCurve curve = randomCurve(randomIntBetween(1, SpaceFillingCurve.MAX_ORDER));
+      Point p = ctx.makePoint(randomDouble() * 360 - 180, randomDouble() * 180 - 90);
+      long key = curve.encode(p);
+      assertTrue(key >= 0 && key < 1L << (2 * curve.getOrder()));
+      assertEquals(key, curve.index(curve.deindex(key) >>> 32, curve.deindex(key) & 0xFFFFFFFFL));
+      Rectangle cell = curve.cellBounds(key, 0, null);
+      assertEquals(curve + " " + p, SpatialRelation.CONTAINS, cell.relate(p));
+      assertEquals(ctx.getWorldBounds(), curve.cellBounds(key, curve.getOrder(), null));
+    }
+    // world corners
+    SpaceFillingCurve curve = new HilbertCurve(ctx, 8);
+    assertEquals(0, curve.encode(-180, -90));
+    assertEquals((1L << 16) - 1, curve.encode(180, -90));
+  }
+
+  @Test
+  public void testBitInterleaving() {
+    assertEquals(0b10_01_11L, BitInterleaving.interleave(0b101, 0b011));
+    for (int i = 0; i < 1000; i++) {
+      long x = randomLong() & 0xFFFFFFFFL, y = randomLong() & 0xFFFFFFFFL;
+      long key = BitInterleaving.interleave(x, y);
+      assertEquals(x, BitInterleaving.compactBits(key >>> 1));
+      assertEquals(y, BitInterleaving.compactBits(key));
+    }
+  }
+
+  @Test
+  public void testHilbertLocality() {
+    final int order = randomIntBetween(1, 6);
+    final HilbertCurve curve = new HilbertCurve(ctx, order);
+    final long numKeys = 1L << (2 * order);
+    BitSet seen = new BitSet();
+    long prevXY = curve.deindex(0);
+    for (long key = 0; key < numKeys; key++) {
+      long xy = curve.deindex(key);
+      long x = xy >>> 32, y = xy & 0xFFFFFFFFL;
+      assertEquals(key, curve.index(x, y));
+      int cell = (int) ((x << order) | y);
+      assertTrue(!seen.get(cell));
+      seen.set(cell);
+      if (key > 0) {//adjacent to the previous cell
+        long dx = Math.abs(x - (prevXY >>> 32)), dy = Math.abs(y - (prevXY & 0xFFFFFFFFL));
+        assertEquals(1, dx + dy);
+      }
+      prevXY = xy;
+    }
+  }
+
+  @Test
+  public void testRanges() {
+    for (int i = 0; i < 50; i++) {
+      SpaceFillingCurve curve = randomCurve(randomIntBetween(1, 16));
+      Shape shape = randomBoolean()
+          ? ctx.makeCircle(randomDouble() * 360 - 180, randomDouble() * 180 - 90, randomDouble() * 30)
+          : ctx.makeRectangle(randomDouble() * 360 - 180, randomDouble() * 360 - 180,
+              randomDouble() * 90 - 90, randomDouble() * 90);//may cross the dateline
+      int maxRanges = randomIntBetween(1, 200);
+      long[] ranges = curve.ranges(shape, maxRanges);
+      assertTrue(ranges.length / 2 <= maxRanges);
+      for (int r = 0; r < ranges.length; r += 2) {
+        assertTrue(ranges[r] <= ranges[r + 1]);
+        if (r > 0)
+          assertTrue("sorted & merged", ranges[r - 1] + 1 < ranges[r]);
+      }
+      // points in the shape are in a range
+      Rectangle bbox = shape.getBoundingBox();
+      for (int p = 0; p < 100; p++) {
+        double x = bbox.getMinX() + randomDouble() * bbox.getWidth();
+        if (x > 180)
+          x -= 360;
+        double y = bbox.getMinY() + randomDouble() * bbox.getHeight();
+        if (shape.relate(ctx.makePoint(x, y)) == SpatialRelation.DISJOINT)
+          continue;
+        long key = curve.encode(x, y);
+        boolean found = false;
+        for (int r = 0; r < ranges.length && !found; r += 2) {
+          found = key >= ranges[r] && key <= ranges[r + 1];
+        }
+        assertTrue(curve + " " + shape + " " + x + "," + y, found);
+      }
+    }
+  }
+}
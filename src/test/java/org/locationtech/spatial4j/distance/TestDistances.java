@@ -10,6 +10,7 @@ package org.locationtech.spatial4j.distance;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.shape.Circle;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
@@ -18,6 +19,9 @@ import org.locationtech.spatial4j.shape.impl.PointImpl;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.locationtech.spatial4j.distance.DistanceUtils.DEG_TO_KM;
@@ -99,6 +103,132 @@ public class TestDistances extends RandomizedTest {
   }
 
 
+  @Test
+  public void testDistancesBulk() {
+    DistanceCalculator[] calcs = {new GeodesicSphereDistCalc.Haversine(), new GeodesicSphereDistCalc.LawOfCosines(),
+        new GeodesicSphereDistCalc.Vincenty(), new CartesianDistCalc(), new CartesianDistCalc(true),
+        new GeodesicEllipsoidDistCalc()};// (the last uses the default loop)
+    final int size = randomIntBetween(1, 100);
+    final int off = randomInt(size - 1);
+    Point from = randomGeoPoint();
+    double[] xs = new double[size];
+    double[] ys = new double[size];
+    for (int i = 0; i < size; i++) {
+      Point p = randomBoolean() ? from : randomGeoPointFrom(from);// includes the same-point special case
+      xs[i] = p.getX();
+      ys[i] = p.getY();
+    }
+    for (DistanceCalculator calc : calcs) {
+      double[] out = new double[size];
+      Arrays.fill(out, -1);
+      calc.distances(from, xs, ys, off, size - off, out);
+      for (int i = 0; i < size; i++) {
+        if (i < off)
+          assertEquals(calc.toString(), -1, out[i], 0);
+        else
+          assertEquals(calc.toString(), calc.distance(from, xs[i], ys[i]), out[i], 0);// exact
+      }
+    }
+  }
+
+  @Test
+  public void testHaversineBulkApprox() {
+    final int size = 1000;
+    Point from = randomGeoPoint();
+    double lat1 = DistanceUtils.toRadians(from.getY());
+    double lon1 = DistanceUtils.toRadians(from.getX());
+    double distRAD = DistanceUtils.toRadians(randomDouble() * 180);
+    double[] lats = new double[size];
+    double[] lons = new double[size];
+    for (int i = 0; i < size; i++) {
+      Point p = randomGeoPointFrom(from);
+      lats[i] = DistanceUtils.toRadians(p.getY());
+      lons[i] = DistanceUtils.toRadians(p.getX());
+    }
+    double[] dists = new double[size];
+    DistanceUtils.distHaversineRAD(lat1, lon1, lats, lons, 0, size, dists);
+    boolean[] within = new boolean[size];
+    DistanceUtils.withinHaversineRAD(lat1, lon1, distRAD, lats, lons, 0, size, within);
+    for (int i = 0; i < size; i++) {
+      double expected = DistanceUtils.distHaversineRAD(lat1, lon1, lats[i], lons[i]);
+      if (expected <= Math.PI - 0.01)
+        assertEquals(expected, dists[i], expected * 1e-11);
+      else
+        assertEquals(expected, dists[i], 1e-6);//near antipodal
+      if (Math.abs(expected - distRAD) > distRAD * 1e-11)
+        assertEquals(expected <= distRAD, within[i]);
+    }
+  }
+
+  @Test
+  public void testGeoDistanceQuery() {
+    DistanceCalculator haversine = new GeodesicSphereDistCalc.Haversine();
+    for (int t = 0; t < 100; t++) {
+      Point center = randomGeoPoint();
+      double distDEG = randomBoolean() ? randomDouble() * 10 : randomDouble() * 200;
+      GeoDistanceQuery query = new GeoDistanceQuery(center, distDEG, ctx);
+      for (int i = 0; i < 100; i++) {
+        Point p = randomBoolean() ? randomGeoPoint() : randomGeoPointFrom(center);
+        double dist = haversine.distance(center, p);
+        if (Math.abs(dist - distDEG) < 1e-9)
+          continue;//too close to the edge to be deterministic
+        assertEquals(query + " " + p + " dist=" + dist, dist <= distDEG, query.within(p));
+      }
+      assertTrue(query.within(center));
+    }
+  }
+
+  @Test
+  public void testWgs84() {
+    GeodesicEllipsoidDistCalc calc = new GeodesicEllipsoidDistCalc();
+    //Flinders Peak to Buninyong, from Vincenty's paper (1975)
+    assertEquals(54972.271, calc.distanceM(-37.9510334167, 144.4248678889, -37.6528211389, 143.9264955278), 0.001);
+    //meridian quadrant
+    assertEquals(10001965.729, calc.distanceM(0, 0, 90, 0), 0.001);
+    assertEquals(20003931.459, calc.distanceM(0, 0, 0, 180), 0.001);//antipodal; via a pole
+    //nearly antipodal, where Vincenty's method fails to converge; value from GeographicLib
+    assertEquals(19936288.579, calc.distanceM(0, 0, 0.5, 179.5), 0.001);
+    //on the equator
+    assertEquals(GeodesicEllipsoidDistCalc.WGS84_SEMI_MAJOR_AXIS_M * Math.PI / 2, calc.distanceM(0, 0, 0, 90), 0.001);
+
+    final double toleranceM = 10;
+    GeodesicEllipsoidDistCalc approxCalc = new GeodesicEllipsoidDistCalc(toleranceM);
+    for (int i = 0; i < 1000; i++) {
+      Point p1 = randomGeoPoint();
+      Point p2 = randomGeoPointFrom(p1);
+      double dist = calc.distance(p1, p2);
+      assertEquals(dist, calc.distance(p2, p1), 1e-9 * KM_TO_DEG);
+      assertEquals(dist, approxCalc.distance(p1, p2), toleranceM / 1000 * KM_TO_DEG);
+      //round trip with the direct problem. Beyond ~179.6 degrees (PI * b) the geodesic in some directions
+      // is no longer the shortest path.
+      if (dist < 179) {
+        double bearingDEG = randomDouble() * 360;
+        Point p3 = calc.pointOnBearing(p1, dist, bearingDEG, ctx, null);
+        assertEquals(dist, calc.distance(p1, p3), 1e-9 * KM_TO_DEG);
+      }
+    }
+  }
+
+  @Test
+  public void testWgs84CalcBoxByDistFromPt() {
+    ctx = makeWgs84Context();
+    testCalcBoxByDistFromPt();
+  }
+
+  @Test
+  public void testWgs84PointOnBearing() {
+    ctx = makeWgs84Context();
+    for (int i = 0; i < 100; i++) {
+      EPS = 1e-9;
+      testDistCalcPointOnBearing(randomInt((int) (179 * DEG_TO_KM)));//see testWgs84
+    }
+  }
+
+  private SpatialContext makeWgs84Context() {
+    return SpatialContextFactory.makeSpatialContext(
+        Collections.singletonMap("distCalculator", "wgs84"), getClass().getClassLoader());
+  }
+
   @Test /** See #81 */
   public void testHaversineNaN() {
     assertEquals(180, new GeodesicSphereDistCalc.Haversine().distance(
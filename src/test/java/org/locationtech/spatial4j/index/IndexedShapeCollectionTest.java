@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.index;
+
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexedShapeCollectionTest extends RandomizedShapeTest {
+
+  public IndexedShapeCollectionTest() {
+    super(SpatialContext.GEO);
+  }
+
+  /** relate() should give the same answer as ShapeCollection's linear scan, short-circuits included. */
+  @Test @Repeat(iterations = 10)
+  public void testRelateAgreesWithShapeCollection() {
+    List<Shape> shapes = new ArrayList<>();
+    final int numShapes = randomIntBetween(1, 200);
+    for (int i = 0; i < numShapes; i++) {
+      shapes.add(randomShape(randomDouble() * 10));
+    }
+    ShapeCollection<Shape> plain = new ShapeCollection<>(shapes, ctx);
+    IndexedShapeCollection<Shape> indexed = new IndexedShapeCollection<>(shapes, ctx);
+    assertEquals(plain.getBoundingBox(), indexed.getBoundingBox());
+    for (int q = 0; q < 100; q++) {
+      Shape other = randomShape(randomDouble() * 30);
+      assertEquals(other.toString(), plain.relate(other), indexed.relate(other));
+    }
+  }
+
+  private Shape randomShape(double size) {
+    switch (randomInt(2)) {
+      case 0: return randomPoint();
+      case 1: return ctx.makeCircle(randomPoint(), size);
+      default:
+        double minX = randomDouble() * 360 - 180;
+        double minY = randomDouble() * (180 - size) - 90;
+        return ctx.makeRectangle(minX, normX(minX + size), minY, minY + size);
+    }
+  }
+}
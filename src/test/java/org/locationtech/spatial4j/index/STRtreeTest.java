@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.index;
+
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
+import org.locationtech.spatial4j.SpatialPredicate;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class STRtreeTest extends RandomizedShapeTest {
+
+  @Test @Repeat(iterations = 10)
+  public void testGeo() {
+    ctx = SpatialContext.GEO;
+    checkAgainstLinearScan();
+  }
+
+  @Test @Repeat(iterations = 5)
+  public void testCartesian() {
+    ctx = new SpatialContextFactory()
+      {{geo = false; worldBounds = new RectangleImpl(-100, 100, -50, 50, null);}}.newSpatialContext();
+    checkAgainstLinearScan();
+  }
+
+  @Test
+  public void testEmpty() {
+    ctx = SpatialContext.GEO;
+    STRtree<Shape> tree = new STRtree<>(ctx, Collections.<Shape>emptyList());
+    assertEquals(0, tree.size());
+    assertTrue(tree.query(ctx.getWorldBounds(), SpatialPredicate.Intersects).isEmpty());
+    assertTrue(tree.queryBoundingBox(ctx.getWorldBounds()).isEmpty());
+  }
+
+  @Test
+  public void testDateline() {
+    ctx = SpatialContext.GEO;
+    List<Shape> shapes = new ArrayList<>();
+    shapes.add(ctx.makeRectangle(170, -170, -10, 10));// crosses the dateline
+    shapes.add(ctx.makePoint(180, 0));
+    shapes.add(ctx.makePoint(-179, 5));
+    shapes.add(ctx.makePoint(0, 0));
+    STRtree<Shape> tree = new STRtree<>(ctx, shapes, 2);
+    assertEquals(3, tree.query(ctx.makeRectangle(-180, -175, -1, 6), SpatialPredicate.Intersects).size());
+    assertEquals(2, tree.query(ctx.makeRectangle(175, -180, -1, 1), SpatialPredicate.Intersects).size());
+    assertEquals(2, tree.query(ctx.makeRectangle(175, -180, -1, 1), SpatialPredicate.IsDisjointTo).size());
+  }
+
+  private void checkAgainstLinearScan() {
+    List<Shape> shapes = new ArrayList<>();
+    final int numShapes = randomIntBetween(0, 300);
+    for (int i = 0; i < numShapes; i++) {
+      shapes.add(randomShape());
+    }
+    STRtree<Shape> tree = new STRtree<>(ctx, shapes, randomIntBetween(2, 20));
+    assertEquals(numShapes, tree.size());
+    assertEquals(new HashSet<>(shapes), new HashSet<>(tree.getShapes()));
+    for (int q = 0; q < 20; q++) {
+      Shape queryShape = randomShape();
+      for (SpatialPredicate predicate : SpatialPredicate.values()) {
+        List<Shape> expected = new ArrayList<>();
+        for (Shape shape : tree.getShapes()) {// (in the tree's order)
+          if (predicate.evaluate(shape, queryShape))
+            expected.add(shape);
+        }
+        assertEquals(predicate + " " + queryShape, expected, tree.query(queryShape, predicate));
+      }
+      List<Shape> candidates = tree.queryBoundingBox(queryShape);
+      for (Shape shape : tree.getShapes()) {
+        if (shape.getBoundingBox().relate(queryShape.getBoundingBox()).intersects())
+          assertTrue(shape + " " + queryShape, candidates.contains(shape));
+      }
+    }
+  }
+
+  private Shape randomShape() {
+    switch (randomInt(2)) {
+      case 0: return randomPoint();
+      case 1:
+        if (ctx.isGeo())
+          return randomRectangle(10);
+        Point p1 = randomPoint(), p2 = randomPoint();
+        return ctx.makeRectangle(Math.min(p1.getX(), p2.getX()), Math.max(p1.getX(), p2.getX()),
+            Math.min(p1.getY(), p2.getY()), Math.max(p1.getY(), p2.getY()));
+      default:
+        if (ctx.isGeo())
+          return ctx.makeCircle(randomPoint(), randomDouble() * 40);
+        return ctx.makeCircle(randomPointIn(ctx.makeRectangle(-90, 90, -40, 40)), randomDouble() * 10);
+    }
+  }
+}
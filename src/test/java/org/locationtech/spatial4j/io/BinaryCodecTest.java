@@ -14,8 +14,11 @@ import org.locationtech.spatial4j.shape.ShapeCollection;
 import org.junit.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class BinaryCodecTest extends BaseRoundTripTest<SpatialContext> {
@@ -47,12 +50,57 @@ public class BinaryCodecTest extends BaseRoundTripTest<SpatialContext> {
     assertRoundTrip(s);
   }
 
+  /** ByteBufferDataInput.readLine should read the same lines as DataInputStream, up to the limit. */
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testByteBufferDataInputReadLine() throws IOException {
+    byte[] bytes = "one\ntwo\r\nthree\rfour\n\n\r\u00e9 five".getBytes("ISO-8859-1");
+    DataInputStream expected = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 2));
+    ByteBuffer buf = ByteBuffer.wrap(bytes);
+    buf.limit(bytes.length - 2);
+    ByteBufferDataInput actual = new ByteBufferDataInput(buf);
+    String line;
+    do {
+      line = expected.readLine();
+      assertEquals(line, actual.readLine());
+    } while (line != null);
+    assertEquals(bytes.length - 2, buf.position());
+  }
+
   @Override
   protected void assertRoundTrip(Shape shape, boolean andEquals) throws IOException {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     binaryCodec.writeShape(new DataOutputStream(baos), shape);
     ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
     assertEquals(shape, binaryCodec.readShape(new DataInputStream(bais)));
+    assertByteBufferRoundTrip(shape, baos.toByteArray());
+  }
+
+  /** The ByteBuffer methods should write the same bytes as with a DataOutput, and read them back. */
+  protected void assertByteBufferRoundTrip(Shape shape, byte[] expectedBytes) {
+    final int offset = randomInt(10);
+    ByteBuffer buf = randomBoolean() ? ByteBuffer.allocateDirect(offset + expectedBytes.length + 10)
+        : ByteBuffer.allocate(offset + expectedBytes.length + 10);
+    if (randomBoolean())
+      buf.order(ByteOrder.LITTLE_ENDIAN);// ignored
+    buf.position(offset);
+    binaryCodec.writeShape(buf, shape);
+    assertEquals(offset + expectedBytes.length, buf.position());
+    byte[] actualBytes = new byte[expectedBytes.length];
+    buf.position(offset);
+    buf.get(actualBytes);
+    assertArrayEquals(expectedBytes, actualBytes);
+
+    buf.position(offset);
+    assertEquals(shape, binaryCodec.readShape(buf));
+    assertEquals(offset + expectedBytes.length, buf.position());
+
+    // absolute
+    buf.clear();
+    assertEquals(expectedBytes.length, binaryCodec.writeShape(buf, offset, shape));
+    assertEquals(0, buf.position());
+    assertEquals(shape, binaryCodec.readShape(buf, offset));
+    assertEquals(0, buf.position());
   }
 
 }
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.shape.Shape;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompactBinaryCodecTest extends BinaryCodecTest {
+
+  @Override
+  public SpatialContext initContext() {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.binaryCodecClass = CompactBinaryCodec.class;
+    return factory.newSpatialContext();
+  }
+
+  @Test
+  public void testNotOnGrid() throws Exception {
+    assertRoundTrip(wkt("POINT EMPTY"));
+    assertRoundTrip(ctx.makeRectangle(-180, 180, -90, 90));
+    assertRoundTrip(ctx.makeCircle(1.25, -3, 180));
+  }
+
+  @Test
+  public void testRounds() throws Exception {
+    Shape shape = roundTrip(ctx.makeRectangle(10.123456789, 10.12345679, -5.00000001, 0));
+    assertEquals(ctx.makeRectangle(10.1234568, 10.1234568, -5, 0), shape);
+  }
+
+  @Test
+  public void testGridSizeConfig() throws Exception {
+    Map<String, String> args = new HashMap<>();
+    args.put("binaryCodecClass", CompactBinaryCodec.class.getName());
+    args.put("binaryCodecGridSize", "0.01");
+    SpatialContext ctx2 = SpatialContextFactory.makeSpatialContext(args, getClass().getClassLoader());
+    CompactBinaryCodec codec = (CompactBinaryCodec) ctx2.getBinaryCodec();
+    assertEquals(0.01, codec.getGridSize(), 0);
+  }
+
+  @Test
+  public void testSmaller() throws Exception {
+    Shape shape = wkt("ENVELOPE(-10.5, -10.25, 42.3, 42.1)");
+    int compactSize = size(binaryCodec, shape);
+    int size = size(SpatialContext.GEO.getBinaryCodec(), shape);
+    assertTrue(compactSize + " vs " + size, compactSize * 3 < size * 2);
+  }
+
+  @Test
+  public void testCorruptSize() throws Exception {
+    // a collection claiming Integer.MAX_VALUE shapes; it mustn't be preallocated
+    byte[] bytes = {4, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    try {
+      binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(bytes)));
+      fail();
+    } catch (EOFException e) {
+      //expected
+    }
+    // a size over Integer.MAX_VALUE
+    bytes = new byte[]{4, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10};
+    try {
+      binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(bytes)));
+      fail();
+    } catch (InvalidShapeException e) {
+      //expected
+    }
+  }
+
+  protected Shape roundTrip(Shape shape) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    binaryCodec.writeShape(new DataOutputStream(baos), shape);
+    return binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+  }
+
+  static int size(BinaryCodec codec, Shape shape) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    codec.writeShape(new DataOutputStream(baos), shape);
+    return baos.size();
+  }
+}
@@ -22,7 +22,15 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -161,4 +169,54 @@ public class GeneralGeoJSONTest extends GeneralReadWriteShapeTest {
     assertEquals(bufferedLineText(), strip(writer.toString(bufferedLine())));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testReadFeatures() throws Exception {
+    String json = "{\"type\": \"FeatureCollection\", \"bbox\": [100, 0, 102, 2], "
+        + "\"crs\": {\"type\": \"name\", \"properties\": {\"name\": \"EPSG:4326\"}},\n"
+        + "\"features\": [\n"
+        + "{\"type\": \"Feature\", \"geometry\": " + pointText() + ", "
+        + "\"properties\": {\"name\": \"a\", \"skip\": {\"x\": [1, {}]}, \"n\": 1}},\n"
+        + "{\"type\": \"Feature\", \"properties\": {\"n\": 2.5, \"name\": [\"b\", null]}, "
+        + "\"geometry\": " + lineText() + "},\n"
+        + "{\"type\": \"Feature\", \"id\": 3, \"geometry\": null, \"properties\": null},\n"
+        + "{\"type\": \"Feature\", \"geometry\": " + polygonText1() + ", \"properties\": {}}\n"
+        + "], \"after\": true}";
+    GeoJSONReader geoJSONReader = new GeoJSONReader(ctx, null);
+    try (GeoJSONReader.FeatureReader features = geoJSONReader.readFeatures(new StringReader(json), "name", "n")) {
+      assertTrue(features.next());
+      assertEquals(point(), features.getShape());
+      Map<String, Object> expected = new HashMap<>();
+      expected.put("name", "a");
+      expected.put("n", 1L);
+      assertEquals(expected, features.getProperties());
+
+      assertTrue(features.next());
+      assertEquals(line(), features.getShape());
+      expected.put("name", Arrays.asList("b", null));
+      expected.put("n", 2.5);
+      assertEquals(expected, features.getProperties());
+
+      assertTrue(features.next());
+      assertNull(features.getShape());
+      assertEquals(Collections.emptyMap(), features.getProperties());
+
+      assertTrue(features.next());
+      assertEquals(polygon1(), features.getShape());
+      assertEquals(Collections.emptyMap(), features.getProperties());
+
+      assertFalse(features.next());
+      assertFalse(features.next());
+    }
+
+    // no properties requested; and an empty collection
+    try (GeoJSONReader.FeatureReader features = geoJSONReader.readFeatures(new StringReader(json))) {
+      assertTrue(features.next());
+      assertEquals(Collections.emptyMap(), features.getProperties());
+    }
+    try (GeoJSONReader.FeatureReader features = geoJSONReader.readFeatures(
+        new StringReader("{\"type\": \"FeatureCollection\", \"features\": []}"))) {
+      assertFalse(features.next());
+    }
+  }
+
+}
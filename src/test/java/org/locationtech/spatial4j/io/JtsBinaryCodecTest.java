@@ -12,13 +12,21 @@ import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKBConstants;
 import org.locationtech.jts.util.GeometricShapeFactory;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.io.jts.JtsBinaryCodec;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.jts.JtsGeometry;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.fail;
+
 public class JtsBinaryCodecTest extends BinaryCodecTest {
 
   @Override
@@ -35,6 +43,34 @@ public class JtsBinaryCodecTest extends BinaryCodecTest {
     assertRoundTrip(shape);
   }
 
+  @Test
+  public void testGeometries() throws Exception {
+    assertRoundTrip(wkt("POLYGON((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 1 2, 2 2, 1 1))"));
+    assertRoundTrip(wkt("MULTIPOLYGON(((0 0, 10 0, 10 10, 0 0)), ((20 20, 30 20, 30 30, 20 20)))"));
+    assertRoundTrip(wkt("LINESTRING(1 2, 3.5 4, -17.9 -8.9)"));
+    assertRoundTrip(wkt("MULTILINESTRING((1 2, 3.5 4), (5 6, 7 8))"));
+    assertRoundTrip(wkt("MULTIPOINT(1 2, 3.5 4)"));
+    assertRoundTrip(wkt("GEOMETRYCOLLECTION(POINT(1 2), LINESTRING(3 4, 5 6))"));
+    assertRoundTrip(wkt("POLYGON EMPTY"));
+  }
+
+  @Test
+  public void testCorruptWkbSize() throws Exception {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    JtsBinaryCodec codec = new JtsBinaryCodec(ctx, new JtsSpatialContextFactory());
+    // a linestring claiming Integer.MAX_VALUE coordinates, and another a negative number; they mustn't be allocated
+    for (int size : new int[]{Integer.MAX_VALUE, -1}) {
+      ByteBuffer buf = ByteBuffer.allocate(8).putInt(WKBConstants.wkbLineString).putInt(size);
+      ((Buffer) buf).flip();
+      try {
+        codec.readJtsGeom(buf);
+        fail();
+      } catch (InvalidShapeException e) {
+        //expected
+      }
+    }
+  }
+
   @Override
   protected Shape randomShape() {
     if (randomInt(3) == 0) {
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.util.GeometricShapeFactory;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.io.jts.JtsCompactBinaryCodec;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JtsCompactBinaryCodecTest extends JtsBinaryCodecTest {
+
+  @Override
+  public SpatialContext initContext() {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.binaryCodecClass = JtsCompactBinaryCodec.class;
+    return factory.newSpatialContext();
+  }
+
+  @Test
+  public void testSmaller() throws Exception {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    // a small polygon (~1km) with many vertices close together, as is typical
+    GeometricShapeFactory gsf = new GeometricShapeFactory(ctx.getGeometryFactory());
+    gsf.setCentre(new Coordinate(randomDouble() * 100, randomDouble() * 50));
+    gsf.setSize(0.01);
+    gsf.setNumPoints(100);
+    Shape shape = ctx.makeShape(gsf.createCircle(), false, false);
+    int compactSize = CompactBinaryCodecTest.size(binaryCodec, shape);
+    int size = CompactBinaryCodecTest.size(JtsSpatialContext.GEO.getBinaryCodec(), shape);
+    assertTrue(compactSize + " vs " + size, compactSize * 3 < size);
+  }
+
+  @Test
+  public void testCorruptSize() throws Exception {
+    // a geometry, a linestring, claiming Integer.MAX_VALUE coordinates; they mustn't be preallocated
+    byte[] bytes = {5, 2, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    try {
+      binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(bytes)));
+      fail();
+    } catch (EOFException e) {
+      //expected
+    }
+    // a multipolygon of Integer.MAX_VALUE polygons
+    bytes = new byte[]{5, 6, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    try {
+      binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(bytes)));
+      fail();
+    } catch (EOFException e) {
+      //expected
+    }
+  }
+
+  /** Rounded to the grid, so that it survives the round trip. */
+  @Override
+  Geometry randomGeometry(int points) {
+    Geometry geom = super.randomGeometry(points);
+    geom.apply(new CoordinateFilter() {
+      @Override
+      public void filter(Coordinate coord) {
+        coord.x = Math.round(coord.x * 1e7) / 1e7;
+        coord.y = Math.round(coord.y * 1e7) / 1e7;
+      }
+    });
+    geom.geometryChanged();
+    return geom;
+  }
+}
@@ -66,6 +66,29 @@ public class JtsWKTReaderShapeParserTest extends RandomizedTest {
   }
 
 
+  @Test
+  public void testCharSequenceParsedLikeString() throws Exception {
+    // JtsWKTReaderShapeParser overrides parseIfSupported(String); other input must go through it too
+    WKTReader reader = (WKTReader) ctx.getFormats().getWktReader();
+    String wkt = "Polygon((-170 30, -170 15,  160 15,  160 30, -170 30))";
+    Shape expected = reader.parse(wkt);
+    assertEquals(expected, reader.parse(new StringBuilder(wkt)));
+    assertEquals(expected, reader.read(new StringBuilder(wkt)));
+    char[] chars = ("  " + wkt + "  ").toCharArray();
+    assertEquals(expected, reader.parse(chars, 2, wkt.length()));
+
+    // JTS doesn't know ENVELOPE, no matter the input type
+    String envelope = "ENVELOPE(1, 2, 4, 3)";
+    for (CharSequence input : new CharSequence[]{envelope, new StringBuilder(envelope)}) {
+      try {
+        reader.read(input);
+        fail(input.getClass().getName());
+      } catch (InvalidShapeException e) {
+        //expected
+      }
+    }
+  }
+
   @Test
   public void testWrapTopologyException() {
     try {
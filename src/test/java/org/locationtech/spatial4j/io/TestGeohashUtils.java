@@ -9,15 +9,20 @@
 package org.locationtech.spatial4j.io;
 
 import org.locationtech.spatial4j.context.SpatialContext;
+import com.carrotsearch.randomizedtesting.RandomizedTest;
 import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link GeohashUtils}
  */
-public class TestGeohashUtils {
+public class TestGeohashUtils extends RandomizedTest {
   SpatialContext ctx = SpatialContext.GEO;
 
   /**
@@ -112,4 +117,113 @@ public class TestGeohashUtils {
 
     assertEquals(GeohashUtils.MAX_PRECISION, GeohashUtils.lookupHashLenForWidthHeight(10e-20,10e-20));
   }
+
+  @Test
+  public void testLongEncoding() {
+    assertEquals(GeohashUtils.geohashToLong("ezs42e44yx96"), GeohashUtils.encodeLatLonAsLong(42.6, -5.6, 60));
+    assertEquals("u4pruydqqvj8", GeohashUtils.longToGeohash(GeohashUtils.encodeLatLonAsLong(57.64911, 10.40744, 60), 60));
+
+    Rectangle reuse = ctx.makeRectangle(0, 0, 0, 0);
+    for (int i = 0; i < 1000; i++) {
+      // often on cell boundaries
+      double lat = randomBoolean() ? randomDouble() * 180 - 90 : randomIntBetween(-90 * 8, 90 * 8) / 8.0;
+      double lon = randomBoolean() ? randomDouble() * 360 - 180 : randomIntBetween(-180 * 8, 180 * 8) / 8.0;
+      int len = randomIntBetween(1, 12);
+      String geohash = GeohashUtils.encodeLatLon(lat, lon, len);
+      long hash = GeohashUtils.encodeLatLonAsLong(lat, lon, len * 5);
+      assertEquals(GeohashUtils.geohashToLong(geohash), hash);
+      assertEquals(geohash, GeohashUtils.longToGeohash(hash, len * 5));
+      assertEquals(GeohashUtils.decodeBoundary(geohash, ctx),
+          GeohashUtils.decodeBoundary(hash, len * 5, ctx, reuse));
+
+      // any number of bits: the cell contains the point, and is within the cell of a bit less
+      int bits = randomIntBetween(1, GeohashUtils.MAX_PRECISION_BITS);
+      hash = GeohashUtils.encodeLatLonAsLong(lat, lon, bits);
+      Rectangle cell = GeohashUtils.decodeBoundary(hash, bits, ctx, null);
+      assertEquals(SpatialRelation.CONTAINS, cell.relate(ctx.makePoint(lon, lat)));
+      if (bits > 1) {
+        Rectangle parent = GeohashUtils.decodeBoundary(hash >>> 1, bits - 1, ctx, null);
+        assertEquals(SpatialRelation.CONTAINS, parent.relate(cell));
+        assertEquals(parent.getArea(null) / 2, cell.getArea(null), 0);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGeohashToLongInvalid() {
+    GeohashUtils.geohashToLong("u4pa");//'a' isn't used
+  }
+
+  @Test
+  public void testNeighbors() {
+    assertEquals("u4pruydqqvj8", GeohashUtils.getNeighbors("u4pruydqqvj9")[4]);//south; the last bit is latitude's
+    assertEquals("u4pruydqqvj9", GeohashUtils.getNeighbors(GeohashUtils.getNeighbors("u4pruydqqvj9")[6])[2]);
+    String[] poleNeighbors = GeohashUtils.getNeighbors("b");//at the north pole and the dateline
+    assertEquals(null, poleNeighbors[0]);
+    assertEquals("z", poleNeighbors[6]);//west, across the dateline
+
+    long[] neighbors = new long[8];
+    for (int i = 0; i < 1000; i++) {
+      int bits = randomIntBetween(1, GeohashUtils.MAX_PRECISION_BITS);
+      long hash = GeohashUtils.encodeLatLonAsLong(randomDouble() * 180 - 90, randomDouble() * 360 - 180, bits);
+      Rectangle cell = GeohashUtils.decodeBoundary(hash, bits, ctx, null);
+      GeohashUtils.neighbors(hash, bits, neighbors);
+      for (long neighbor : neighbors) {
+        if (neighbor == -1) {
+          assertTrue(cell.getMaxY() == 90 || cell.getMinY() == -90);
+          continue;
+        }
+        Rectangle nCell = GeohashUtils.decodeBoundary(neighbor, bits, ctx, null);
+        // touches but isn't the same
+        assertEquals(SpatialRelation.INTERSECTS, nCell.relate(cell));
+        assertEquals(cell.getWidth(), nCell.getWidth(), 0);
+        assertEquals(cell.getHeight(), nCell.getHeight(), 0);
+        assertTrue(nCell.getCenter().getY() != cell.getCenter().getY()
+            || nCell.getCenter().getX() != cell.getCenter().getX());
+      }
+    }
+  }
+
+  @Test
+  public void testCoverRanges() {
+    for (int i = 0; i < 50; i++) {
+      Shape shape = randomBoolean()
+          ? ctx.makeCircle(randomDouble() * 360 - 180, randomDouble() * 180 - 90, randomDouble() * 30)
+          : ctx.makeRectangle(randomDouble() * 360 - 180, randomDouble() * 360 - 180,
+              randomDouble() * 90 - 90, randomDouble() * 90);//may cross the dateline
+      int bits = randomIntBetween(1, 30);
+      int maxCells = randomIntBetween(1, 200);
+      long[] ranges = GeohashUtils.coverRanges(shape, bits, maxCells, ctx);
+      assertTrue(ranges.length / 2 <= maxCells);
+      for (int r = 0; r < ranges.length; r += 2) {
+        assertTrue(ranges[r] <= ranges[r + 1]);
+        if (r > 0)
+          assertTrue("sorted & merged", ranges[r - 1] + 1 < ranges[r]);
+      }
+      // points in the shape are in a range
+      for (int p = 0; p < 100; p++) {
+        Rectangle bbox = shape.getBoundingBox();
+        double x = bbox.getMinX() + randomDouble() * bbox.getWidth();
+        if (x > 180)
+          x -= 360;
+        double y = bbox.getMinY() + randomDouble() * bbox.getHeight();
+        if (shape.relate(ctx.makePoint(x, y)) == SpatialRelation.DISJOINT)
+          continue;
+        long hash = GeohashUtils.encodeLatLonAsLong(y, x, bits);
+        boolean found = false;
+        for (int r = 0; r < ranges.length && !found; r += 2) {
+          found = hash >= ranges[r] && hash <= ranges[r + 1];
+        }
+        assertTrue(shape + " " + x + "," + y, found);
+      }
+    }
+    // a cell-aligned rectangle is covered by its cell's range (plus cells touching its edges)
+    Rectangle cell = GeohashUtils.decodeBoundary(GeohashUtils.geohashToLong("u4p"), 15, ctx, null);
+    long[] ranges = GeohashUtils.coverRanges(cell, 25, 1000, ctx);
+    boolean found = false;
+    for (int r = 0; r < ranges.length; r += 2) {
+      found |= ranges[r] <= GeohashUtils.geohashToLong("u4p00") && ranges[r + 1] >= GeohashUtils.geohashToLong("u4pzz");
+    }
+    assertTrue(found);
+  }
 }
@@ -13,14 +13,18 @@ package org.locationtech.spatial4j.io;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -40,6 +44,11 @@ public class WktShapeParserTest extends RandomizedTest {
 
   protected void assertParses(String wkt, Shape expected) throws ParseException {
     assertEquals(wkt(wkt), expected);
+    // in place, without a String
+    WKTReader reader = (WKTReader) ctx.getFormats().getWktReader();
+    assertEquals(expected, reader.parse(new StringBuilder(wkt)));
+    char[] chars = ("xx" + wkt + "yy").toCharArray();
+    assertEquals(expected, reader.parse(chars, 2, wkt.length()));
   }
 
   protected Shape wkt(String wkt) throws ParseException {
@@ -118,6 +127,98 @@ public class WktShapeParserTest extends RandomizedTest {
     assertParses("MULTIPOINT Z EMPTY", ctx.getShapeFactory().multiPoint().build());
   }
 
+  @Test
+  public void testDoubleParser() {
+    String[] fixed = {"0", "-0", "+1", "1.", ".5", "-.5", "1e5", "1E+05", "2.5e-3", "00012.500", "0.0000001",
+        "123456789012345", "1234567890123456789", "9007199254740993", "1e22", "1e23", "4.9e-324", "1.7976931348623157e308",
+        "0.1", "0.3", "-73.98567123456", "179.99999999999997", "1e-400", "0e9999"};
+    for (String str : fixed) {
+      assertParsesDouble(str);
+    }
+    for (int i = 0; i < 10000; i++) {
+      double d = (randomDouble() - 0.5) * Math.pow(10, randomIntBetween(-10, 10));
+      assertParsesDouble(Double.toString(d));
+      assertParsesDouble(String.format(java.util.Locale.ROOT, "%." + randomIntBetween(0, 17) + "f", d));
+    }
+    for (String bad : new String[]{"", "-", ".", "e5", "1e", "1-2", "1.2.3", "1e+"}) {
+      try {
+        DoubleParser.parseDouble(bad, 0, bad.length());
+        fail(bad);
+      } catch (NumberFormatException e) {//expected
+      }
+    }
+  }
+
+  private void assertParsesDouble(String str) {
+    String padded = "(" + str + " ";
+    assertEquals(str, Double.doubleToLongBits(Double.parseDouble(str)),
+        Double.doubleToLongBits(DoubleParser.parseDouble(padded, 1, str.length() + 1)));
+  }
+
+  @Test
+  public void testReadMembers() throws Exception {
+    assertMembers("GEOMETRYCOLLECTION(POINT(1 2), LINESTRING(1 10, 2 20), ENVELOPE(10, 30, 45, 25))",
+        "POINT(1 2)", "LINESTRING(1 10, 2 20)", "ENVELOPE(10, 30, 45, 25)");
+    assertMembers(" MULTIPOINT ((1 2),(3 4)) ", "POINT(1 2)", "POINT(3 4)");
+    assertMembers("MULTIPOINT (1 2, 3 4)", "POINT(1 2)", "POINT(3 4)");
+    assertMembers("MULTILINESTRING ((1 10, 2 20), (3 30, 4 40))", "LINESTRING(1 10, 2 20)", "LINESTRING(3 30, 4 40)");
+    if (ctx instanceof JtsSpatialContext) {// polygons
+      assertMembers("MULTIPOLYGON (((1 1, 2 1, 2 2, 1 1)), ((5 5, 6 5, 6 6, 5 5)))",
+          "POLYGON((1 1, 2 1, 2 2, 1 1))", "POLYGON((5 5, 6 5, 6 6, 5 5))");
+    }
+    assertMembers("POINT(1 2)", "POINT(1 2)");
+    assertMembers("MULTIPOLYGON EMPTY");
+    assertMembers("");
+
+    // many members, streamed
+    StringBuilder wkt = new StringBuilder("MULTIPOINT(");
+    final int numPoints = 20000;
+    for (int i = 0; i < numPoints; i++) {
+      wkt.append(i == 0 ? "" : ", ").append(i % 180).append(' ').append(i % 90).append('.').append(i);
+    }
+    wkt.append(')');
+    final List<Shape> shapes = new ArrayList<>();
+    ((WKTReader) ctx.getFormats().getWktReader()).readMembers(new StringReader(wkt.toString()), shapes::add);
+    assertEquals(numPoints, shapes.size());
+    assertEquals(wkt("POINT(179 89.179)"), shapes.get(179));
+
+    try {
+      ((WKTReader) ctx.getFormats().getWktReader()).readMembers(new StringReader("MULTIPOINT(1 2) X"), shapes::add);
+      fail();
+    } catch (ParseException e) {//expected
+    }
+  }
+
+  private void assertMembers(String wkt, String... expectedWkts) throws Exception {
+    List<Shape> expected = new ArrayList<>();
+    for (String expectedWkt : expectedWkts) {
+      expected.add(wkt(expectedWkt));
+    }
+    List<Shape> actual = new ArrayList<>();
+    ((WKTReader) ctx.getFormats().getWktReader()).readMembers(new StringReader(wkt), actual::add);
+    assertEquals(wkt, expected, actual);
+  }
+
+  /** Only a window of the Reader is buffered, as long as it's released. */
+  @Test
+  public void testReaderCharSequence() {
+    StringBuilder str = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      str.append(i).append(' ');
+    }
+    ReaderCharSequence text = new ReaderCharSequence(new StringReader(str.toString()), 16);
+    StringBuilder actual = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c == ' ')
+        text.release(i);
+      actual.append(c);
+    }
+    assertEquals(str.toString(), actual.toString());
+    assertEquals(str.length(), text.length());
+    assertEquals(16, text.getBufferSize());
+  }
+
   @Test
   public void testParseEnvelope() throws ParseException {
     Rectangle r = ctx.makeRectangle(ctx.makePoint(10, 25), ctx.makePoint(30, 45));
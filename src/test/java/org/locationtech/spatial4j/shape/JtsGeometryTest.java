@@ -13,6 +13,8 @@ import com.carrotsearch.randomizedtesting.annotations.Repeat;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
 import org.locationtech.spatial4j.io.WKTReader;
 import org.locationtech.spatial4j.shape.impl.PointImpl;
 import org.locationtech.spatial4j.shape.impl.RectangleImpl;
@@ -27,6 +29,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.text.ParseException;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -116,6 +119,150 @@ public class JtsGeometryTest extends AbstractTestShapes {
     assertRelation(CONTAINS, lineB, pointB);
   }
 
+  /** relate(Point) has its own point-in-polygon code; it should agree with JTS, including on the boundary. */
+  @Test
+  @Repeat(iterations = 10)
+  public void testRelatePointAgreesWithJts() {
+    GeometryFactory gf = ctxNotGeo.getGeometryFactory();
+    //a union of integer-aligned boxes (exact boundary hits), with a hole, and a buffered point (diagonal edges)
+    Geometry geom = gf.createPoint(new Coordinate(randomIntBetween(-50, 50), randomIntBetween(-50, 50)))
+        .buffer(randomIntBetween(5, 30));
+    for (int i = 0; i < 4; i++) {
+      int x = randomIntBetween(-100, 90), y = randomIntBetween(-100, 90);
+      geom = geom.union(gf.toGeometry(new Envelope(x, x + randomIntBetween(1, 40), y, y + randomIntBetween(1, 40))));
+    }
+    Envelope env = geom.getEnvelopeInternal();
+    Envelope holeEnv = new Envelope(env.centre());
+    holeEnv.expandBy(randomIntBetween(1, 5));
+    geom = geom.difference(gf.toGeometry(holeEnv));
+
+    JtsGeometry jtsGeom = ctxNotGeo.getShapeFactory().makeShape(geom);
+    for (boolean indexed : new boolean[]{false, true}) {
+      if (indexed)
+        jtsGeom.index();
+      for (int i = 0; i < 2000; i++) {
+        double x, y;
+        if (i % 3 == 0) {
+          Coordinate vertex = geom.getCoordinates()[randomInt(geom.getNumPoints() - 1)];
+          x = vertex.x;
+          y = vertex.y;
+        } else if (i % 3 == 1) {
+          x = randomIntBetween((int) env.getMinX() - 1, (int) env.getMaxX() + 1);
+          y = randomIntBetween((int) env.getMinY() - 1, (int) env.getMaxY() + 1);
+        } else {
+          x = env.getMinX() + randomDouble() * env.getWidth();
+          y = env.getMinY() + randomDouble() * env.getHeight();
+        }
+        SpatialRelation expected = geom.disjoint(gf.createPoint(new Coordinate(x, y))) ? DISJOINT : CONTAINS;
+        assertEquals(x + " " + y + " " + indexed, expected, jtsGeom.relate(ctxNotGeo.makePoint(x, y)));
+      }
+    }
+  }
+
+  /** relate(Circle) uses segment indexes once indexed; the result should be the same. */
+  @Test
+  @Repeat(iterations = 5)
+  public void testRelateCircleIndexed() {
+    GeometryFactory gf = ctxNotGeo.getGeometryFactory();
+    //detailed rings (indexed) with holes, some small (not indexed)
+    Geometry geom = gf.createPoint(new Coordinate(randomIntBetween(-50, 50), randomIntBetween(-50, 50)))
+        .buffer(randomIntBetween(20, 50), 100);
+    for (int i = 0; i < 3; i++) {
+      Coordinate c = geom.getCentroid().getCoordinate();
+      geom = geom.difference(gf.createPoint(new Coordinate(c.x + randomIntBetween(-20, 20), c.y + randomIntBetween(-20, 20)))
+          .buffer(randomIntBetween(1, 8), randomBoolean() ? 2 : 40));
+    }
+    if (randomBoolean())
+      geom = geom.getBoundary();//lines
+    JtsGeometry plain = ctxNotGeo.getShapeFactory().makeShape(geom);
+    JtsGeometry indexed = ctxNotGeo.getShapeFactory().makeShape(geom);
+    indexed.index();
+    Envelope env = geom.getEnvelopeInternal();
+    for (int i = 0; i < 2000; i++) {
+      Circle circle = ctxNotGeo.makeCircle(env.getMinX() - 10 + randomDouble() * (env.getWidth() + 20),
+          env.getMinY() - 10 + randomDouble() * (env.getHeight() + 20), randomDouble() * (randomBoolean() ? 5 : 60));
+      assertEquals(circle.toString(), plain.relate(circle), indexed.relate(circle));
+    }
+  }
+
+  /** When geo, relate(Circle) is geodesic; a lon-lat rectangle polygon should relate like the Rectangle. */
+  @Test
+  @Repeat(iterations = 5)
+  public void testRelateCircleGeodesic() {
+    JtsSpatialContext ctxJts = (JtsSpatialContext) ctx;
+    // at 60 degrees latitude, a degree of longitude is half as far as one of latitude
+    JtsGeometry highLat = ctxJts.makeShape(ctxJts.getGeometryFrom(ctx.makeRectangle(7.5, 8.5, 59.5, 60.5)), false, false);
+    assertEquals(WITHIN, highLat.relate(ctx.makeCircle(0, 60, 5)));
+    JtsGeometry tall = ctxJts.makeShape(ctxJts.getGeometryFrom(ctx.makeRectangle(9, 30, 40, 80)), false, false);
+    assertEquals(INTERSECTS, tall.relate(ctx.makeCircle(0, 60, 5)));// only the west edge is within
+
+    GeometryFactory gf = ctxJts.getGeometryFactory();
+    for (int i = 0; i < 200; i++) {
+      double minX = randomIntBetween(-180, 170), minY = randomIntBetween(-89, 80);
+      Rectangle rect = ctx.makeRectangle(minX, Math.min(180, minX + randomIntBetween(1, 60)),
+          minY, Math.min(89, minY + randomIntBetween(1, 30)));
+      // densify the edges (straight in lon-lat) so that the segments get indexed
+      final int perEdge = randomBoolean() ? 1 : 30;
+      Coordinate[] coords = new Coordinate[perEdge * 4 + 1];
+      for (int p = 0; p < perEdge; p++) {
+        double f = (double) p / perEdge;
+        coords[p] = new Coordinate(rect.getMinX() + f * rect.getWidth(), rect.getMinY());
+        coords[perEdge + p] = new Coordinate(rect.getMaxX(), rect.getMinY() + f * rect.getHeight());
+        coords[perEdge * 2 + p] = new Coordinate(rect.getMaxX() - f * rect.getWidth(), rect.getMaxY());
+        coords[perEdge * 3 + p] = new Coordinate(rect.getMinX(), rect.getMaxY() - f * rect.getHeight());
+      }
+      coords[perEdge * 4] = coords[0];
+      JtsGeometry poly = ctxJts.makeShape(gf.createPolygon(coords), false, false);
+      if (randomBoolean())
+        poly.index();
+      for (int c = 0; c < 20; c++) {
+        Circle circle = ctx.makeCircle(randomPointIn(ctx.makeRectangle(
+            DistanceUtils.normLonDEG(rect.getMinX() - 20), DistanceUtils.normLonDEG(rect.getMaxX() + 20),
+            Math.max(-90, rect.getMinY() - 20), Math.min(90, rect.getMaxY() + 20))), randomDouble() * 30);
+        assertEquals(rect + " " + circle, rect.relate(circle), poly.relate(circle));
+      }
+    }
+  }
+
+  /** A long segment passing just inside or outside of a small circle; the bisection tolerance is relative. */
+  @Test
+  public void testRelateCircleGeodesicNearTangent() throws ParseException {
+    JtsSpatialContext ctxJts = (JtsSpatialContext) ctx;
+    final double radius = 1e-7;// about a centimeter
+    for (double y : new double[]{radius * (1 - 1e-7), radius * (1 + 1e-7)}) {
+      // the nearest point to the center is (0, y), straight north
+      JtsGeometry line = ctxJts.makeShape(ctxJts.getGeometryFactory().createLineString(new Coordinate[]{
+          new Coordinate(-100, y), new Coordinate(37.3, y)}), false, false);
+      if (randomBoolean())
+        line.index();
+      assertEquals("" + y, y < radius ? INTERSECTS : DISJOINT, line.relate(ctx.makeCircle(0, 0, radius)));
+    }
+  }
+
+  /** Nearly tangent, a segment takes a bounded number of distance calculations. */
+  @Test
+  public void testRelateCircleGeodesicNearTangentCost() throws ParseException {
+    final AtomicInteger calcs = new AtomicInteger();
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.distCalc = new GeodesicSphereDistCalc.Haversine() {
+      @Override
+      protected double distanceLatLonRAD(double lat1, double lon1, double lat2, double lon2) {
+        calcs.incrementAndGet();
+        return super.distanceLatLonRAD(lat1, lon1, lat2, lon2);
+      }
+    };
+    JtsSpatialContext ctxJts = factory.newSpatialContext();
+    Shape line = wkt(ctxJts, "LINESTRING(0 28.5, 28.5 0)");
+    // by symmetry the closest point to the origin is the middle
+    final double dist = ctxJts.getDistCalc().distance(ctxJts.makePoint(0, 0), 14.25, 14.25);
+    for (double clearance : new double[]{1e-3, 1e-7, 1e-9}) {
+      calcs.set(0);
+      assertEquals(DISJOINT, line.relate(ctxJts.makeCircle(0, 0, dist * (1 - clearance))));
+      assertTrue(clearance + " " + calcs.get(), calcs.get() < 300);
+    }
+    assertEquals(INTERSECTS, line.relate(ctxJts.makeCircle(0, 0, dist * (1 + 1e-9))));
+  }
+
   @Test
   public void testEmpty() throws ParseException {
     Shape emptyGeom = wkt(ctx, "POLYGON EMPTY");
@@ -8,6 +8,7 @@
 
 package org.locationtech.spatial4j.shape;
 
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
 import org.locationtech.spatial4j.TestLog;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.SpatialContextFactory;
@@ -18,8 +19,11 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.locationtech.spatial4j.shape.SpatialRelation.CONTAINS;
 
@@ -54,6 +58,72 @@ public class ShapeCollectionTest extends RandomizedShapeTest {
   }
 
 
+  @Test
+  @Repeat(iterations = 20)
+  public void testComputeMutualDisjoint() {
+    ctx = SpatialContext.GEO;
+    List<Shape> shapes = new ArrayList<>();
+    int count = randomIntBetween(0, 50);
+    for (int i = 0; i < count; i++) {
+      Point p = randomPoint();
+      switch (randomInt(2)) {
+        case 0: shapes.add(p); break;
+        case 1: shapes.add(ctx.makeCircle(p, randomDouble() * 5)); break;
+        default: shapes.add(ctx.makeRectangle(p.getX(), normX(p.getX() + randomDouble() * 10),
+            p.getY(), Math.min(90, p.getY() + randomDouble() * 10)));
+      }
+    }
+    if (count > 0 && randomBoolean())
+      shapes.add(shapes.get(randomInt(count - 1)));//a duplicate
+    //compare to the O(N^2) algorithm
+    boolean expected = true;
+    for (int i = 1; i < shapes.size() && expected; i++) {
+      for (int j = 0; j < i; j++) {
+        if (shapes.get(j).relate(shapes.get(i)).intersects()) {
+          expected = false;
+          break;
+        }
+      }
+    }
+    assertEquals(shapes.toString(), expected, ShapeCollection.computeMutualDisjoint(shapes));
+  }
+
+  @Test
+  public void testComputeMutualDisjointBand() {
+    ctx = SpatialContext.GEO;
+    //many boxes side by side in a thin latitude band; all overlap in Y, none in X
+    final AtomicInteger relateCalls = new AtomicInteger();
+    List<Shape> shapes = new ArrayList<>();
+    for (int i = 0; i < 16000; i++) {
+      double minX = -180 + i * 0.0225;
+      shapes.add(new RectangleImpl(minX, minX + 0.02, 0, 1, ctx) {
+        @Override
+        public SpatialRelation relate(Shape other) {
+          relateCalls.incrementAndGet();
+          return super.relate(other);
+        }
+      });
+    }
+    assertTrue(ShapeCollection.computeMutualDisjoint(shapes));
+    assertEquals(0, relateCalls.get());
+
+    shapes.add(ctx.makeRectangle(-179.99, -179.97, 0.5, 2));//overlaps the first two
+    assertFalse(ShapeCollection.computeMutualDisjoint(shapes));
+    assertEquals(2, relateCalls.get());
+  }
+
+  @Test
+  public void testComputeMutualDisjointDateline() {
+    ctx = SpatialContext.GEO;
+    List<Rectangle> shapes = Arrays.asList(ctx.makeRectangle(170, 180, 0, 10), ctx.makeRectangle(-180, -170, 0, 10));
+    assertEquals(shapes.get(0).relate(shapes.get(1)) == SpatialRelation.DISJOINT,
+        ShapeCollection.computeMutualDisjoint(shapes));
+    shapes = Arrays.asList(ctx.makeRectangle(175, -175, 0, 10), ctx.makeRectangle(-178, -176, 5, 20));
+    assertFalse(ShapeCollection.computeMutualDisjoint(shapes));
+    shapes = Arrays.asList(ctx.makeRectangle(175, -175, 0, 10), ctx.makeRectangle(-174, 174, 5, 20));
+    assertTrue(ShapeCollection.computeMutualDisjoint(shapes));
+  }
+
   private void validateWorld(double r1MinX, double r1MaxX, double r2MinX, double r2MaxX) {
     ctx = SpatialContext.GEO;
     Rectangle r1 = ctx.makeRectangle(r1MinX, r1MaxX, -10, 10);
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceCalculator;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GeoCircleTest extends RandomizedShapeTest {
+
+  public GeoCircleTest() {
+    super(SpatialContext.GEO);
+  }
+
+  /** contains() has an optimized path for the haversine calculator; it should agree with the calculator. */
+  @Test @Repeat(iterations = 20)
+  public void testContainsAgreesWithDistCalc() {
+    DistanceCalculator distCalc = ctx.getDistCalc();
+    GeoCircle circle = (GeoCircle) ctx.makeCircle(randomPoint(), randomBoolean() ? randomDouble() * 10 : randomDouble() * 180);
+    for (int r = 0; r < 2; r++) {
+      if (r == 1) //reset() must update the cached state
+        circle.reset(randomDouble() * 360 - 180, randomDouble() * 180 - 90, randomDouble() * 180);
+      for (int i = 0; i < 1000; i++) {
+        Point p = i % 2 == 0 ? randomPoint() : randomPointIn(circle.getBoundingBox());
+        assertEquals(circle + " " + p, distCalc.within(circle.getCenter(), p.getX(), p.getY(), circle.getRadius()),
+            circle.contains(p.getX(), p.getY()));
+      }
+      assertEquals(true, circle.contains(circle.getCenter().getX(), circle.getCenter().getY()));
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.impl;
+
+import com.carrotsearch.randomizedtesting.annotations.Repeat;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PointStoreTest extends RandomizedShapeTest {
+
+  public PointStoreTest() {
+    super(SpatialContext.GEO);
+  }
+
+  @Test
+  public void testBasics() {
+    PointStore store = new PointStore(ctx, 0, false);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, store.add(i, i - 50));
+    }
+    store.trimToSize();
+    assertEquals(100, store.size());
+    assertEquals(ctx.makePoint(7, -43), store.getPoint(7));
+    assertEquals(ctx.makePoint(7, -43).hashCode(), store.getPoint(7).hashCode());
+    PointStore.PointView view = store.getPoint(0);
+    view.setIndex(9);
+    assertEquals(9, view.getX(), 0);
+    view.reset(1, 2);
+    assertEquals(1, store.getX(9), 0);
+    assertEquals(2, store.getY(9), 0);
+    try {
+      store.getPoint(100);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testFloats() {
+    PointStore store = new PointStore(ctx, 1, true);
+    store.add(0.1, -45.123456789);
+    assertTrue(store.isFloats());
+    assertEquals(0.1, store.getX(0), 1e-6);
+    assertEquals((float) -45.123456789, store.getY(0), 0);
+  }
+
+  /** The bulk operations should agree with a Point per point. */
+  @Test @Repeat(iterations = 10)
+  public void testBulkAgrees() {
+    final boolean floats = randomBoolean();
+    PointStore store = new PointStore(ctx, randomInt(10), floats);
+    final int numPoints = randomIntBetween(0, 500);
+    for (int i = 0; i < numPoints; i++) {
+      store.add(randomPoint());
+    }
+    assertEquals(numPoints, store.size());
+    for (int q = 0; q < 20; q++) {
+      Shape shape;
+      switch (randomInt(2)) {
+        case 0: shape = randomRectangle(10); break;
+        case 1: shape = ctx.makeCircle(randomPoint(), randomDouble() * 60); break;
+        default: shape = new ShapeCollection<>(Arrays.asList(randomRectangle(10), randomRectangle(10)), ctx);
+      }
+      BitSet expected = new BitSet();
+      for (int i = 0; i < numPoints; i++) {
+        Point point = ctx.makePoint(store.getX(i), store.getY(i));
+        if (point.relate(shape) != SpatialRelation.DISJOINT)
+          expected.set(i);
+      }
+      BitSet actual = new BitSet();
+      store.relate(shape, actual);
+      assertEquals(shape.toString(), expected, actual);
+    }
+
+    Point from = randomPoint();
+    double[] distances = new double[numPoints];
+    store.distances(from, distances);
+    for (int i = 0; i < numPoints; i++) {
+      assertEquals(ctx.getDistCalc().distance(from, store.getX(i), store.getY(i)), distances[i], 0);
+    }
+  }
+}
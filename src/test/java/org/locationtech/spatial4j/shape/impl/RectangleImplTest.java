@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Voyager Search and MITRE
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.impl;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RectangleImplTest extends RandomizedShapeTest {
+
+  public RectangleImplTest() {
+    super(SpatialContext.GEO);
+  }
+
+  @Test
+  public void testRelationCodes() {
+    for (SpatialRelation relation : SpatialRelation.values()) {
+      assertEquals(relation, RectangleImpl.toRelation(relation.ordinal()));
+    }
+    assertEquals(SpatialRelation.WITHIN, RectangleImpl.toRelation(RectangleImpl.RELATE_WITHIN));
+    assertEquals(SpatialRelation.CONTAINS, RectangleImpl.toRelation(RectangleImpl.RELATE_CONTAINS));
+    assertEquals(SpatialRelation.DISJOINT, RectangleImpl.toRelation(RectangleImpl.RELATE_DISJOINT));
+    assertEquals(SpatialRelation.INTERSECTS, RectangleImpl.toRelation(RectangleImpl.RELATE_INTERSECTS));
+  }
+
+  /** The instance relate(Rectangle) goes through relateXRange &amp; relateYRange, which a subclass may override. */
+  @Test
+  public void testRelateUsesRangeMethods() {
+    Rectangle r = new RectangleImpl(0, 10, 0, 10, ctx) {
+      @Override
+      public SpatialRelation relateXRange(double ext_minX, double ext_maxX) {
+        return SpatialRelation.DISJOINT;
+      }
+    };
+    Rectangle other = ctx.makeRectangle(2, 8, 2, 8);
+    assertEquals(SpatialRelation.DISJOINT, r.relate(other));
+    assertEquals(RectangleImpl.RELATE_CONTAINS, RectangleImpl.relate(true, 0, 10, 0, 10, 2, 8, 2, 8));
+  }
+
+  @Test
+  public void testStaticRelateDateline() {
+    // 170 to -170 crosses the dateline
+    assertEquals(RectangleImpl.RELATE_CONTAINS, RectangleImpl.relate(true, 170, -170, -10, 10, 180, 0));
+    assertEquals(RectangleImpl.RELATE_CONTAINS, RectangleImpl.relate(true, 170, -170, -10, 10, -175, 0));
+    assertEquals(RectangleImpl.RELATE_DISJOINT, RectangleImpl.relate(false, 170, -170, -10, 10, 180, 0));
+    assertEquals(RectangleImpl.RELATE_CONTAINS, RectangleImpl.relate(true, 170, -170, -10, 10, 175, -175, -5, 5));
+    assertEquals(RectangleImpl.RELATE_INTERSECTS, RectangleImpl.relate(true, 170, -170, -10, 10, 160, -175, -5, 5));
+    assertEquals(RectangleImpl.RELATE_WITHIN, RectangleImpl.relate(true, 170, -170, -10, 10, -180, 180, -20, 20));
+    assertEquals(RectangleImpl.RELATE_DISJOINT, RectangleImpl.relate(true, 170, -170, -10, 10, -160, 160, -5, 5));
+    assertEquals(RectangleImpl.RELATE_CONTAINS, RectangleImpl.relate(true, 180, 180, -10, 10, -180, -180, -5, 5));
+  }
+
+  @Test
+  public void testStaticRelateCases() {
+    final SpatialRelation CONTAINS = SpatialRelation.CONTAINS, WITHIN = SpatialRelation.WITHIN,
+        INTERSECTS = SpatialRelation.INTERSECTS, DISJOINT = SpatialRelation.DISJOINT;
+    // crossing the dateline
+    assertRelate(CONTAINS, rect(170, -170, -10, 10), rect(175, -175, -5, 5));
+    assertRelate(INTERSECTS, rect(170, -170, -10, 10), rect(-175, -160, -5, 5));
+    assertRelate(INTERSECTS, rect(170, -170, -10, 10), rect(160, 175, -5, 5));
+    assertRelate(WITHIN, rect(170, -170, -10, 10), rect(160, -160, -20, 20));
+    assertRelate(DISJOINT, rect(170, -170, -10, 10), rect(-160, 160, -5, 5));
+    assertRelate(INTERSECTS, rect(170, -170, -10, 10), rect(100, -100, -20, 0));
+    // world wrap (-180 to 180)
+    assertRelate(CONTAINS, rect(-180, 180, -90, 90), rect(170, -170, -10, 10));
+    assertRelate(CONTAINS, rect(-180, 180, -10, 10), rect(-180, 180, -10, 10));
+    assertRelate(CONTAINS, rect(-180, 180, -10, 10), rect(180, 180, -10, 10));
+    assertRelate(INTERSECTS, rect(-180, 180, 0, 10), rect(179, -179, 5, 20));
+    assertRelate(DISJOINT, rect(-180, 180, 0, 10), rect(170, -170, 11, 20));
+    // touching edges and corners
+    assertRelate(INTERSECTS, rect(0, 10, 0, 10), rect(10, 20, 0, 10));
+    assertRelate(INTERSECTS, rect(0, 10, 0, 10), rect(0, 10, 10, 20));
+    assertRelate(INTERSECTS, rect(0, 10, 0, 10), rect(10, 20, 10, 20));
+    assertRelate(DISJOINT, rect(0, 10, 0, 10), rect(10.000001, 20, 0, 10));
+    assertRelate(INTERSECTS, rect(170, 180, 0, 10), rect(-180, -170, 0, 10));// the same meridian
+    assertRelate(INTERSECTS, rect(170, -170, 0, 10), rect(-170, -160, 0, 10));
+    // degenerate (zero width or height)
+    assertRelate(WITHIN, rect(5, 5, 0, 10), rect(0, 10, 0, 10));
+    assertRelate(WITHIN, rect(10, 10, 0, 10), rect(0, 10, 0, 10));
+    assertRelate(CONTAINS, rect(0, 10, 0, 10), rect(5, 5, 2, 2));
+    assertRelate(CONTAINS, rect(5, 5, 0, 10), rect(5, 5, 0, 10));
+    assertRelate(INTERSECTS, rect(5, 5, 0, 10), rect(0, 10, 5, 5));
+    assertRelate(DISJOINT, rect(11, 11, 0, 10), rect(0, 10, 0, 10));
+    assertRelate(WITHIN, rect(180, 180, 0, 10), rect(-180, -170, 0, 10));
+    assertRelate(WITHIN, rect(-180, -180, 0, 10), rect(170, -170, 0, 10));
+
+    // points
+    assertRelatePoint(CONTAINS, rect(170, -170, -10, 10), 180, 0);
+    assertRelatePoint(CONTAINS, rect(170, -170, -10, 10), -180, 0);
+    assertRelatePoint(CONTAINS, rect(170, -170, -10, 10), -170, 10);// a corner
+    assertRelatePoint(DISJOINT, rect(170, -170, -10, 10), 169.9, 0);
+    assertRelatePoint(DISJOINT, rect(170, -170, -10, 10), 0, 0);
+    assertRelatePoint(CONTAINS, rect(-180, 180, -10, 10), 180, -10);
+    assertRelatePoint(CONTAINS, rect(5, 5, 0, 10), 5, 3);
+    assertRelatePoint(DISJOINT, rect(5, 5, 0, 10), 5.000001, 3);
+    assertRelatePoint(CONTAINS, rect(180, 180, 0, 10), -180, 5);
+  }
+
+  private Rectangle rect(double minX, double maxX, double minY, double maxY) {
+    return ctx.makeRectangle(minX, maxX, minY, maxY);
+  }
+
+  /**
+   * Checks the static relate of r1 to r2 is expected, and its transpose the other way (but equal rectangles
+   * contain each other); and the instance method.
+   */
+  private void assertRelate(SpatialRelation expected, Rectangle r1, Rectangle r2) {
+    assertEquals(r1 + " " + r2, expected, RectangleImpl.toRelation(RectangleImpl.relate(true,
+        r1.getMinX(), r1.getMaxX(), r1.getMinY(), r1.getMaxY(),
+        r2.getMinX(), r2.getMaxX(), r2.getMinY(), r2.getMaxY())));
+    assertEquals(r2 + " " + r1, r1.equals(r2) ? expected : expected.transpose(), RectangleImpl.toRelation(RectangleImpl.relate(true,
+        r2.getMinX(), r2.getMaxX(), r2.getMinY(), r2.getMaxY(),
+        r1.getMinX(), r1.getMaxX(), r1.getMinY(), r1.getMaxY())));
+    assertEquals(r1 + " " + r2, expected, r1.relate(r2));
+  }
+
+  private void assertRelatePoint(SpatialRelation expected, Rectangle r, double x, double y) {
+    assertEquals(r + " " + x + "," + y, expected, RectangleImpl.toRelation(RectangleImpl.relate(true,
+        r.getMinX(), r.getMaxX(), r.getMinY(), r.getMaxY(), x, y)));
+    assertEquals(r + " " + x + "," + y, expected, r.relate(ctx.makePoint(x, y)));
+  }
+}
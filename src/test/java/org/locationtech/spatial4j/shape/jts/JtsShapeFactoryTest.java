@@ -23,7 +23,9 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
 import org.locationtech.spatial4j.distance.DistanceUtils;
@@ -31,10 +33,23 @@ import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
 import org.locationtech.spatial4j.shape.Circle;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
 import org.locationtech.spatial4j.shape.impl.GeoCircle;
 import org.locationtech.spatial4j.shape.impl.PointImpl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class JtsShapeFactoryTest {
@@ -56,6 +71,81 @@ public class JtsShapeFactoryTest {
     assertTrue(jtsGeom2.isIndexed());
   }
 
+  @Test
+  public void testAutoIndexThreshold() {
+    Map<String, String> args = new HashMap<>();
+    args.put("spatialContextFactory", JtsSpatialContextFactory.class.getName());
+    args.put("autoIndexThreshold", "3");
+    JtsSpatialContext ctx = (JtsSpatialContext) SpatialContextFactory.makeSpatialContext(args, getClass().getClassLoader());
+    assertEquals(3, ctx.getShapeFactory().getAutoIndexThreshold());
+
+    Geometry g = ctx.getGeometryFactory().createPoint(new Coordinate(0,0)).buffer(10);
+    JtsGeometry jtsGeom = ctx.getShapeFactory().makeShape(g);
+    assertFalse(jtsGeom.isIndexed());
+    Shape rect = ctx.makeRectangle(-1, 20, -1, 1);
+    assertEquals(SpatialRelation.INTERSECTS, jtsGeom.relate(rect));
+    assertEquals(SpatialRelation.INTERSECTS, jtsGeom.relate(rect));
+    assertEquals(2, jtsGeom.getRelateCount());
+    assertFalse(jtsGeom.isIndexed());
+    assertEquals(SpatialRelation.INTERSECTS, jtsGeom.relate(rect));
+    assertEquals(3, jtsGeom.getRelateCount());
+    assertTrue(jtsGeom.isIndexed());
+    assertEquals(SpatialRelation.INTERSECTS, jtsGeom.relate(rect));
+    assertEquals(SpatialRelation.DISJOINT, jtsGeom.relate(ctx.makeRectangle(-1, 1, 15, 20)));//bbox only
+    assertEquals(3, jtsGeom.getRelateCount());// no longer counted once indexed
+  }
+
+  @Test
+  public void testAutoIndexThresholdDisabled() {
+    JtsSpatialContext ctx = JtsSpatialContext.GEO;
+    assertEquals(0, ctx.getShapeFactory().getAutoIndexThreshold());
+    Geometry g = ctx.getGeometryFactory().createPoint(new Coordinate(0,0)).buffer(10);
+    JtsGeometry jtsGeom = ctx.getShapeFactory().makeShape(g);
+    Shape rect = ctx.makeRectangle(-1, 20, -1, 1);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(SpatialRelation.INTERSECTS, jtsGeom.relate(rect));
+    }
+    assertEquals(0, jtsGeom.getRelateCount());
+    assertFalse(jtsGeom.isIndexed());
+  }
+
+  @Test
+  public void testIndexConcurrently() throws Exception {
+    final JtsSpatialContext ctx = JtsSpatialContext.GEO;
+    Geometry g = ctx.getGeometryFactory().createPoint(new Coordinate(0,0)).buffer(10);
+    final JtsGeometry jtsGeom = ctx.getShapeFactory().makeShape(g);
+    final int numThreads = 8;
+    final CyclicBarrier barrier = new CyclicBarrier(numThreads);
+    final PreparedGeometry[] prepared = new PreparedGeometry[numThreads];
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<SpatialRelation>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int threadNum = t;
+        futures.add(executor.submit(new Callable<SpatialRelation>() {
+          @Override
+          public SpatialRelation call() throws Exception {
+            barrier.await();
+            if (threadNum % 2 == 0)
+              jtsGeom.index();
+            SpatialRelation rel = jtsGeom.relate(ctx.makeRectangle(-1, 20, -1, 1));
+            jtsGeom.index();
+            prepared[threadNum] = jtsGeom.preparedGeometry;
+            return rel;
+          }
+        }));
+      }
+      for (Future<SpatialRelation> future : futures) {
+        assertEquals(SpatialRelation.INTERSECTS, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (PreparedGeometry p : prepared) {
+      assertSame(prepared[0], p);//only prepared once
+    }
+  }
+
   @Test
   public void testEmptyPoint() {
     JtsSpatialContextFactory jtsCtxFactory = new JtsSpatialContextFactory();